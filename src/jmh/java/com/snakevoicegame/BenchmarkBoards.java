@@ -0,0 +1,41 @@
+package com.snakevoicegame;
+
+// Prepared game states shared by the benchmarks
+final class BenchmarkBoards {
+
+    private BenchmarkBoards() {
+    }
+
+    // Classic board with a snake of at least the given length, grown along the Hamiltonian cycle
+    static SnakeEngine snakeOfLength(int length, long seed) {
+        SnakeEngine engine = new SnakeEngine(GameMode.CLASSIC, seed);
+        Policy policy = Policies.create("hamiltonian", seed);
+        while (engine.getLength() < length) {
+            if (!engine.step(policy.choose(engine))) {
+                throw new IllegalStateException("Board filled before reaching length " + length);
+            }
+        }
+        return engine;
+    }
+
+    // A short greedy game in the given mode, so snake, food and obstacles are all on screen
+    static SnakeEngine midGame(GameMode mode, long seed) {
+        return midGame(mode, SnakeEngine.GRID_COLS, SnakeEngine.GRID_ROWS, seed);
+    }
+
+    static SnakeEngine midGame(GameMode mode, int cols, int rows, long seed) {
+        SnakeEngine engine = new SnakeEngine(mode, cols, rows, seed);
+        Policy policy = Policies.create("greedy", seed);
+        for (int i = 0; i < 400; i++) {
+            Direction next = policy.choose(engine);
+            if (next == null) {
+                next = engine.getDirection(); // policies return null to keep going straight
+            }
+            if (!Policies.isSafe(engine, next)) {
+                break; // keep the last live state
+            }
+            engine.step(next);
+        }
+        return engine;
+    }
+}
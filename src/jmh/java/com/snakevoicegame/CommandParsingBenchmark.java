@@ -0,0 +1,74 @@
+package com.snakevoicegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a Vosk result JSON into commands, as the listener does, on strings captured from the recognizer with setWords(true).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandParsingBenchmark {
+
+    private static final String SINGLE_WORD = "{\n  \"result\" : [{\n      \"conf\" : 1.000000,\n"
+            + "      \"end\" : 1.170000,\n      \"start\" : 0.840000,\n      \"word\" : \"left\"\n    }],\n"
+            + "  \"text\" : \"left\"\n}";
+    private static final String PHRASE = "{\n  \"result\" : [{\n      \"conf\" : 0.713370,\n"
+            + "      \"end\" : 2.010000,\n      \"start\" : 1.650000,\n      \"word\" : \"go\"\n    }, {\n"
+            + "      \"conf\" : 0.998220,\n      \"end\" : 2.370000,\n      \"start\" : 2.010000,\n"
+            + "      \"word\" : \"right\"\n    }],\n  \"text\" : \"go right\"\n}";
+    private static final String EMPTY = "{\n  \"text\" : \"\"\n}";
+
+    private static final CommandGrammar GRAMMAR = CommandGrammar.commands();
+
+    @Param({"single-word", "phrase", "empty"})
+    public String result;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        switch (result) {
+            case "single-word":
+                json = SINGLE_WORD;
+                break;
+            case "phrase":
+                json = PHRASE;
+                break;
+            default:
+                json = EMPTY;
+                break;
+        }
+    }
+
+    // Open vocabulary (--open-vocabulary): commands picked out of each word
+    @Benchmark
+    public List<String> processResult() {
+        String text = VoskVoiceController.parseText(json);
+        return text == null || text.isEmpty() ? Collections.emptyList() : VoskVoiceController.extractCommands(text);
+    }
+
+    // The same result matched against the command grammar, as with a grammar-restricted recognizer
+    @Benchmark
+    public List<String> processGrammarResult() {
+        String text = VoskVoiceController.parseText(json);
+        return text == null || text.isEmpty() ? Collections.emptyList() : GRAMMAR.matchAll(text);
+    }
+}
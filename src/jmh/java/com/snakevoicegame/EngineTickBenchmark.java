@@ -0,0 +1,108 @@
+package com.snakevoicegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one game tick (move + food + collision) at several snake lengths. {@code legacyArrayShift}
+ * replays the original GamePanel approach (shift every segment, scan the body for self-hits) on
+ * the same path as the "before" number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineTickBenchmark {
+
+    private static final int STEPS = 1000;
+
+    @Param({"3", "100", "400", "800"})
+    public int length;
+
+    private SnakeEngine template;
+    private SnakeEngine engine;
+    private Policy policy;
+
+    private int[] snakeX;
+    private int[] snakeY;
+    private int cols;
+
+    @Setup
+    public void setUp() {
+        template = BenchmarkBoards.snakeOfLength(length, 42);
+        engine = new SnakeEngine(GameMode.CLASSIC, 42);
+        policy = Policies.create("hamiltonian", 42);
+
+        cols = template.getCols();
+        snakeX = new int[template.getCols() * template.getRows()];
+        snakeY = new int[snakeX.length];
+    }
+
+    // Restoring the prepared board keeps the length stable; it is amortised over STEPS ticks
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public boolean engineStep() {
+        engine.copyFrom(template);
+        boolean alive = true;
+        for (int i = 0; i < STEPS; i++) {
+            alive &= engine.step(policy.choose(engine));
+        }
+        return alive;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void legacyArrayShift(Blackhole bh) {
+        int n = template.getLength();
+        for (int i = 0; i < n; i++) {
+            snakeX[i] = template.getSegmentX(i);
+            snakeY[i] = template.getSegmentY(i);
+        }
+        for (int step = 0; step < STEPS; step++) {
+            Direction d = hamiltonian(snakeX[0], snakeY[0]);
+            for (int i = n - 1; i > 0; i--) {
+                snakeX[i] = snakeX[i - 1];
+                snakeY[i] = snakeY[i - 1];
+            }
+            snakeX[0] += d.dx();
+            snakeY[0] += d.dy();
+            boolean hit = false;
+            for (int i = 1; i < n; i++) {
+                if (snakeX[0] == snakeX[i] && snakeY[0] == snakeY[i]) {
+                    hit = true;
+                    break;
+                }
+            }
+            bh.consume(hit);
+        }
+    }
+
+    // Same cycle as Policies.HamiltonianPolicy, on raw coordinates
+    private Direction hamiltonian(int x, int y) {
+        if (x == 0) {
+            return y == 0 ? Direction.RIGHT : Direction.UP;
+        }
+        if (y % 2 == 0) {
+            return x == cols - 1 ? Direction.DOWN : Direction.RIGHT;
+        }
+        if (x == 1 && y != template.getRows() - 1) {
+            return Direction.DOWN;
+        }
+        return Direction.LEFT;
+    }
+}
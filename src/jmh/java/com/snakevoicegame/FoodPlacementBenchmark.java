@@ -0,0 +1,68 @@
+package com.snakevoicegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Food placement with only a few free cells left. {@code legacyRejectionSampling} is the original
+ * "pick a random cell, scan the body, retry" loop on the same board.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FoodPlacementBenchmark {
+
+    @Param({"420", "40", "4"})
+    public int freeCells;
+
+    private SnakeEngine engine;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() {
+        int cells = SnakeEngine.GRID_COLS * SnakeEngine.GRID_ROWS;
+        engine = BenchmarkBoards.snakeOfLength(cells - freeCells, 42);
+    }
+
+    @Benchmark
+    public int freeCellIndex() {
+        engine.placeFood();
+        return engine.getFoodX();
+    }
+
+    @Benchmark
+    public int legacyRejectionSampling() {
+        int cols = engine.getCols();
+        int rows = engine.getRows();
+        int length = engine.getLength();
+        while (true) {
+            int x = random.nextInt(cols);
+            int y = random.nextInt(rows);
+            boolean onSnake = false;
+            for (int i = 0; i < length; i++) {
+                if (engine.getSegmentX(i) == x && engine.getSegmentY(i) == y) {
+                    onSnake = true;
+                    break;
+                }
+            }
+            if (!onSnake) {
+                return x;
+            }
+        }
+    }
+}
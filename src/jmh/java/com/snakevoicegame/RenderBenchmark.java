@@ -0,0 +1,70 @@
+package com.snakevoicegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full frame of the in-game painting (what GamePanel.paintComponent draws) into an offscreen image.
+ * The view is always the default window size; larger boards are drawn through the camera.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    @Param({"CLASSIC", "INTERMEDIATE", "LABYRINTH", "EXPERT"})
+    public GameMode mode;
+
+    @Param({"KEYBOARD", "VOICE"})
+    public ControlMode controlMode;
+
+    @Param({"30x28", "2000x2000"})
+    public String board;
+
+    private GameRenderer renderer;
+    private GameSnapshot snapshot;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setUp() {
+        String[] size = board.split("x");
+        SnakeEngine engine = BenchmarkBoards.midGame(mode, Integer.parseInt(size[0]), Integer.parseInt(size[1]), 42);
+        snapshot = new GameSnapshot(engine, engine.getSegmentCell(1), engine.copyObstacles(), System.nanoTime());
+        renderer = new GameRenderer(controlMode, new Font(Font.DIALOG, Font.PLAIN, 12));
+        renderer.setSize(SnakeEngine.GRID_COLS * GameRenderer.TILE_SIZE, SnakeEngine.GRID_ROWS * GameRenderer.TILE_SIZE);
+        renderer.setVoiceStatus("Listening...", true);
+        image = new BufferedImage(SnakeEngine.GRID_COLS * GameRenderer.TILE_SIZE,
+                SnakeEngine.GRID_ROWS * GameRenderer.TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintFrame() {
+        renderer.paint(graphics, snapshot, System.nanoTime());
+        return image;
+    }
+}
@@ -0,0 +1,117 @@
+package com.snakevoicegame;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering for {@link GamePanel}: a Canvas with a triple-buffered BufferStrategy, drawn by its
+ * own thread at a fixed frame rate that is independent of the tick rate.
+ *
+ * <p>Frames are scheduled on a fixed grid of {@code 1 / targetFps}. When a frame finishes late, the
+ * slots it overran are skipped instead of rendered back to back, so a slow frame never turns into a
+ * burst of catch-up frames that would only show the same state again.
+ */
+final class ActiveRenderCanvas extends Canvas {
+
+    private static final int BUFFERS = 3;
+    private static final long WAIT_NANOS = 50_000_000L; // while not displayable
+
+    private final GameLoop loop;
+    private final GameRenderer renderer;
+    private final PerformanceOverlay overlay;
+    private final Runnable beforeFrame;
+    private final long framePeriodNanos;
+
+    private volatile boolean rendering = false;
+    private Thread thread;
+
+    // beforeFrame runs on the render thread right before each frame, e.g. to update HUD state
+    ActiveRenderCanvas(GameLoop loop, GameRenderer renderer, PerformanceOverlay overlay, int targetFps,
+                       Runnable beforeFrame) {
+        this.loop = loop;
+        this.renderer = renderer;
+        this.overlay = overlay;
+        this.beforeFrame = beforeFrame;
+        this.framePeriodNanos = 1_000_000_000L / Math.max(1, targetFps);
+        setIgnoreRepaint(true); // nothing is painted by AWT; the render thread owns the canvas
+        setFocusable(true);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(BUFFERS);
+        rendering = true;
+        thread = new Thread(this::renderLoop, "ActiveRender");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        // stop drawing before the peer and its buffers go away
+        rendering = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        super.removeNotify();
+    }
+
+    private void renderLoop() {
+        long nextFrame = System.nanoTime();
+        while (rendering) {
+            BufferStrategy strategy = getBufferStrategy();
+            if (strategy == null || !isShowing() || getWidth() <= 0) {
+                LockSupport.parkNanos(WAIT_NANOS);
+                nextFrame = System.nanoTime();
+                continue;
+            }
+            try {
+                renderFrame(strategy);
+            } catch (IllegalStateException e) {
+                // buffers were lost with the peer, e.g. while the card is being removed
+                LockSupport.parkNanos(WAIT_NANOS);
+                nextFrame = System.nanoTime();
+                continue;
+            }
+            nextFrame += framePeriodNanos;
+            long now = System.nanoTime();
+            if (now > nextFrame) {
+                // frame skip: drop the slots we overran and wait for the next one on the grid
+                long missed = (now - nextFrame) / framePeriodNanos + 1;
+                nextFrame += missed * framePeriodNanos;
+            }
+            LockSupport.parkNanos(nextFrame - now);
+        }
+    }
+
+    private void renderFrame(BufferStrategy strategy) {
+        do {
+            do {
+                Graphics2D g2 = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    beforeFrame.run();
+                    renderer.setSize(getWidth(), getHeight());
+                    long start = System.nanoTime();
+                    renderer.paint(g2, loop.getSnapshot(), start);
+                    overlay.recordPaint(System.nanoTime() - start);
+                    overlay.update(start);
+                    overlay.paint(g2);
+                } finally {
+                    g2.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); // flush the pipeline so frames are not queued up on X11
+    }
+}
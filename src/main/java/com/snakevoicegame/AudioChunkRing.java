@@ -0,0 +1,103 @@
+package com.snakevoicegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated single-producer/single-consumer queue of microphone chunks between the capture thread and
+ * the decode thread. Each slot is a fixed byte array the producer reads the microphone straight into,
+ * with the chunk's length and capture time next to it; publishing is a volatile store of the write
+ * counter, so neither side ever locks or allocates. When the decoder falls so far behind that every slot
+ * is full, {@link #writeSlot()} returns null and the producer drops that chunk instead of waiting.
+ *
+ * <p>Exactly one thread may call the producer methods and one other thread the consumer methods.
+ */
+final class AudioChunkRing {
+
+    private final byte[][] slots;
+    private final int[] lengths;
+    private final long[] captureNanos;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong(); // chunks published by the producer
+    private final AtomicLong read = new AtomicLong(); // chunks released by the consumer
+    private volatile Thread consumer; // parked in awaitChunk()
+
+    AudioChunkRing(int capacity, int slotBytes) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.slots = new byte[capacity][slotBytes];
+        this.lengths = new int[capacity];
+        this.captureNanos = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Only while neither side is running
+    void clear() {
+        read.set(written.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    // Chunks published and not yet released
+    int depth() {
+        return (int) (written.get() - read.get());
+    }
+
+    // Producer: the slot to fill next, or null when the queue is full
+    byte[] writeSlot() {
+        long index = written.get();
+        return index - read.get() > mask ? null : slots[(int) (index & mask)];
+    }
+
+    // Producer: hands the slot from writeSlot() to the consumer
+    void publish(int length, long nanos) {
+        long index = written.get();
+        lengths[(int) (index & mask)] = length;
+        captureNanos[(int) (index & mask)] = nanos;
+        // A full volatile store, not lazySet: it must not be reordered with the load of consumer below,
+        // or this side could miss a consumer that has just registered and the chunk would wait a poll
+        written.set(index + 1);
+        Thread waiting = consumer;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    // Consumer: waits up to timeoutNanos for a chunk; true if one is there
+    boolean awaitChunk(long timeoutNanos) {
+        if (depth() > 0) {
+            return true;
+        }
+        // Mirror of publish(): store consumer, then load written; both are volatile, so either the producer
+        // sees this thread and unparks it, or this check sees the chunk. A release-only store on either
+        // side would allow both to miss each other.
+        consumer = Thread.currentThread();
+        if (depth() == 0) {
+            LockSupport.parkNanos(this, timeoutNanos);
+        }
+        consumer = null;
+        return depth() > 0;
+    }
+
+    // Consumer: the oldest chunk; only valid after awaitChunk() returned true and until release()
+    byte[] readSlot() {
+        return slots[(int) (read.get() & mask)];
+    }
+
+    int readLength() {
+        return lengths[(int) (read.get() & mask)];
+    }
+
+    // System.nanoTime() at which the last sample of the oldest chunk was captured
+    long readCaptureNanos() {
+        return captureNanos[(int) (read.get() & mask)];
+    }
+
+    // Consumer: gives the oldest slot back to the producer
+    void release() {
+        read.lazySet(read.get() + 1);
+    }
+}
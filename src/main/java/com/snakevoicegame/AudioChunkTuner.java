@@ -0,0 +1,46 @@
+package com.snakevoicegame;
+
+/**
+ * Picks how much audio the voice listener reads per call. Small chunks mean the recognizer sees a word
+ * sooner, but every call has a fixed cost, so below some size decoding cannot keep up with real time.
+ * The tuner starts at the smallest size and measures decode time against the duration of the audio
+ * decoded; whenever a window of at least {@link #WINDOW_AUDIO_NANOS} takes longer than
+ * {@link #MAX_REAL_TIME_FACTOR} of real time, it moves to the next larger size and stays there.
+ */
+final class AudioChunkTuner {
+
+    static final int[] CHUNK_MILLIS = {10, 20, 40, 80, 128};
+    private static final long WINDOW_AUDIO_NANOS = 1_000_000_000L;
+    private static final double MAX_REAL_TIME_FACTOR = 0.7; // headroom for the game on the same cores
+
+    private int index = 0;
+    private long windowAudioNanos;
+    private long windowDecodeNanos;
+    private double lastRealTimeFactor;
+
+    int getChunkMillis() {
+        return CHUNK_MILLIS[index];
+    }
+
+    // Decode time over audio time of the last full window
+    double getRealTimeFactor() {
+        return lastRealTimeFactor;
+    }
+
+    // One decode call; returns true when the chunk size changed
+    boolean record(long audioNanos, long decodeNanos) {
+        windowAudioNanos += audioNanos;
+        windowDecodeNanos += decodeNanos;
+        if (windowAudioNanos < WINDOW_AUDIO_NANOS) {
+            return false;
+        }
+        lastRealTimeFactor = (double) windowDecodeNanos / windowAudioNanos;
+        windowAudioNanos = 0;
+        windowDecodeNanos = 0;
+        if (lastRealTimeFactor > MAX_REAL_TIME_FACTOR && index < CHUNK_MILLIS.length - 1) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+}
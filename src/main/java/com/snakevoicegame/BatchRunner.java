@@ -0,0 +1,256 @@
+package com.snakevoicegame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many headless games per {@link GameMode} across all cores and prints score, length,
+ * bolt-food and death-cause statistics, for tuning the per-mode speed and spawn constants.
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.snakevoicegame.BatchRunner \
+ *     -Dexec.args="--games 1000000 --policy greedy --modes CLASSIC,EXPERT --seed 42"
+ * </pre>
+ */
+public final class BatchRunner {
+
+    private static final int GAMES_PER_CHUNK = 256;
+
+    private final String policyName;
+    private final long seed;
+    private final long maxTicks;
+    private final int cols;
+    private final int rows;
+
+    public BatchRunner(String policyName, long seed, long maxTicks) {
+        this(policyName, seed, maxTicks, SnakeEngine.GRID_COLS, SnakeEngine.GRID_ROWS);
+    }
+
+    public BatchRunner(String policyName, long seed, long maxTicks, int cols, int rows) {
+        this.policyName = policyName;
+        this.seed = seed;
+        this.maxTicks = maxTicks;
+        this.cols = cols;
+        this.rows = rows;
+        Policies.create(policyName, seed); // fail fast on an unknown name
+    }
+
+    public static void main(String[] args) {
+        long games = 10_000;
+        String policy = "greedy";
+        long seed = 1;
+        long maxTicks = 1_000_000;
+        int cols = SnakeEngine.GRID_COLS;
+        int rows = SnakeEngine.GRID_ROWS;
+        List<GameMode> modes = new ArrayList<>(Arrays.asList(GameMode.values()));
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (arg) {
+                case "--games":
+                    games = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--policy":
+                    policy = value;
+                    i++;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--max-ticks":
+                    maxTicks = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--grid":
+                    String[] size = value.toLowerCase(Locale.ROOT).split("x");
+                    cols = Integer.parseInt(size[0].trim());
+                    rows = Integer.parseInt(size[size.length - 1].trim());
+                    i++;
+                    break;
+                case "--modes":
+                    modes.clear();
+                    for (String m : value.split(",")) {
+                        modes.add(GameMode.valueOf(m.trim().toUpperCase(Locale.ROOT)));
+                    }
+                    i++;
+                    break;
+                default:
+                    System.err.println("Usage: BatchRunner [--games N] [--policy random|greedy|hamiltonian] "
+                            + "[--modes CLASSIC,...] [--grid COLSxROWS] [--seed S] [--max-ticks T]");
+                    System.exit(2);
+                    return;
+            }
+        }
+
+        BatchRunner runner = new BatchRunner(policy, seed, maxTicks, cols, rows);
+        System.out.printf(Locale.ROOT, "%d games per mode on %dx%d, policy=%s, seed=%d, %d threads%n",
+                games, cols, rows, policy, seed, Runtime.getRuntime().availableProcessors());
+        for (GameMode mode : modes) {
+            long start = System.nanoTime();
+            Stats stats = runner.run(mode, games);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println();
+            System.out.printf(Locale.ROOT, "== %s (%.2f s, %.0f games/s, %.0f ticks/s)%n",
+                    mode, seconds, stats.games / seconds, stats.ticks.sum / seconds);
+            stats.print();
+        }
+    }
+
+    public Stats run(GameMode mode, long games) {
+        int chunks = (int) ((games + GAMES_PER_CHUNK - 1) / GAMES_PER_CHUNK);
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    long first = (long) chunk * GAMES_PER_CHUNK;
+                    return runChunk(mode, first, Math.min(games, first + GAMES_PER_CHUNK));
+                })
+                .reduce(new Stats(), Stats::merge);
+    }
+
+    private Stats runChunk(GameMode mode, long firstGame, long endGame) {
+        Stats stats = new Stats();
+        SnakeEngine engine = new SnakeEngine(mode, cols, rows, gameSeed(firstGame));
+        for (long game = firstGame; game < endGame; game++) {
+            // every game gets its own seed, so results do not depend on the thread layout
+            long gameSeed = gameSeed(game);
+            engine.reset(gameSeed);
+            Policy policy = Policies.create(policyName, ~gameSeed);
+            long playedMillis = 0;
+            while (engine.isRunning() && engine.getTicks() < maxTicks) {
+                playedMillis += engine.getTickDelay();
+                engine.step(policy.choose(engine));
+            }
+            stats.add(engine, playedMillis);
+        }
+        return stats;
+    }
+
+    private long gameSeed(long game) {
+        return seed * 0x9E3779B97F4A7C15L + game;
+    }
+
+    public static final class Stats {
+        long games;
+        long timeouts;
+        long foodSpawned;
+        long boltSpawned;
+        final Histogram scores = new Histogram(10);
+        final Histogram ticks = new Histogram(100);
+        final Histogram seconds = new Histogram(1);
+        final Map<GameOutcome, Long> outcomes = new EnumMap<>(GameOutcome.class);
+
+        void add(SnakeEngine engine, long playedMillis) {
+            games++;
+            scores.add(engine.getScore());
+            ticks.add(engine.getTicks());
+            seconds.add(playedMillis / 1000);
+            foodSpawned += engine.getFoodSpawned();
+            boltSpawned += engine.getBoltSpawned();
+            if (engine.isRunning()) {
+                timeouts++;
+            } else {
+                outcomes.merge(engine.getOutcome(), 1L, Long::sum);
+            }
+        }
+
+        Stats merge(Stats other) {
+            Stats merged = new Stats();
+            for (Stats s : new Stats[]{this, other}) {
+                merged.games += s.games;
+                merged.timeouts += s.timeouts;
+                merged.foodSpawned += s.foodSpawned;
+                merged.boltSpawned += s.boltSpawned;
+                merged.scores.addAll(s.scores);
+                merged.ticks.addAll(s.ticks);
+                merged.seconds.addAll(s.seconds);
+                s.outcomes.forEach((k, v) -> merged.outcomes.merge(k, v, Long::sum));
+            }
+            return merged;
+        }
+
+        void print() {
+            scores.print("score");
+            ticks.print("ticks");
+            seconds.print("seconds played");
+            System.out.printf(Locale.ROOT, "  bolt food      %d of %d spawned (%.2f%%), %.2f per game%n",
+                    boltSpawned, foodSpawned, percent(boltSpawned, foodSpawned), (double) boltSpawned / Math.max(1, games));
+            for (Map.Entry<GameOutcome, Long> e : outcomes.entrySet()) {
+                System.out.printf(Locale.ROOT, "  %-14s %d (%.2f%%)%n", e.getKey(), e.getValue(), percent(e.getValue(), games));
+            }
+            if (timeouts > 0) {
+                System.out.printf(Locale.ROOT, "  %-14s %d (%.2f%%)%n", "TIMEOUT", timeouts, percent(timeouts, games));
+            }
+        }
+
+        private static double percent(long part, long whole) {
+            return whole == 0 ? 0 : 100.0 * part / whole;
+        }
+    }
+
+    // Fixed-width bucket counts; exact enough for percentiles of scores (multiples of 10) and tick counts
+    static final class Histogram {
+        private final long bucketWidth;
+        private long[] counts = new long[64];
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        Histogram(long bucketWidth) {
+            this.bucketWidth = bucketWidth;
+        }
+
+        void add(long value) {
+            int bucket = (int) (value / bucketWidth);
+            if (bucket >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(bucket + 1, counts.length * 2));
+            }
+            counts[bucket]++;
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void addAll(Histogram other) {
+            if (other.counts.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.counts.length);
+            }
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        long percentile(double p) {
+            long rank = (long) Math.ceil(p * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.max(min, Math.min(max, i * bucketWidth));
+                }
+            }
+            return max;
+        }
+
+        void print(String label) {
+            if (count == 0) {
+                return;
+            }
+            System.out.printf(Locale.ROOT, "  %-14s mean %.1f  min %d  p10 %d  p50 %d  p90 %d  p99 %d  max %d%n",
+                    label, (double) sum / count, min, percentile(0.10), percentile(0.50),
+                    percentile(0.90), percentile(0.99), max);
+        }
+    }
+}
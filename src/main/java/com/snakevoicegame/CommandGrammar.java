@@ -0,0 +1,121 @@
+package com.snakevoicegame;
+
+import com.google.gson.JsonArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The voice commands, read from the JSGF grammar {@code grammars/commands.gram} on the classpath. That
+ * file is the one list of commands: Sphinx loads it directly and Vosk gets its phrases as a recognizer
+ * grammar, so adding a command there is enough for both back ends.
+ *
+ * <p>Only the flat form the file uses is understood: public rules whose bodies are alternatives of
+ * plain words, e.g. {@code public <direction> = up | down;}.
+ */
+final class CommandGrammar {
+
+    static final String RESOURCE = "/grammars/commands.gram";
+    static final String UNKNOWN = "[unk]"; // Vosk's catch-all for speech outside the grammar
+
+    private static volatile CommandGrammar commands;
+
+    private final List<String> phrases;
+
+    private CommandGrammar(List<String> phrases) {
+        this.phrases = Collections.unmodifiableList(phrases);
+    }
+
+    // The grammar of the game's commands, parsed once
+    static CommandGrammar commands() {
+        CommandGrammar grammar = commands;
+        if (grammar == null) {
+            try (InputStream in = CommandGrammar.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing " + RESOURCE);
+                }
+                grammar = parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + RESOURCE + ": " + e.getMessage(), e);
+            }
+            commands = grammar;
+        }
+        return grammar;
+    }
+
+    static CommandGrammar parse(String jsgf) {
+        String text = jsgf.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("//[^\\n]*", " ");
+        List<String> phrases = new ArrayList<>();
+        for (String statement : text.split(";")) {
+            String rule = statement.trim();
+            if (!rule.startsWith("public ") || rule.indexOf('=') < 0) {
+                continue; // header, grammar name or a private rule
+            }
+            for (String alternative : rule.substring(rule.indexOf('=') + 1).split("\\|")) {
+                String phrase = alternative.replaceAll("[()\\[\\]]", " ").trim().replaceAll("\\s+", " ")
+                        .toLowerCase(Locale.ROOT);
+                if (phrase.contains("<")) {
+                    throw new IllegalArgumentException("Rule references are not supported: " + alternative.trim());
+                }
+                if (!phrase.isEmpty() && !phrases.contains(phrase)) {
+                    phrases.add(phrase);
+                }
+            }
+        }
+        if (phrases.isEmpty()) {
+            throw new IllegalArgumentException("Grammar has no public phrases");
+        }
+        return new CommandGrammar(phrases);
+    }
+
+    List<String> getPhrases() {
+        return phrases;
+    }
+
+    boolean contains(String phrase) {
+        return phrase != null && phrases.contains(phrase);
+    }
+
+    // JSON phrase list for a Vosk Recognizer, with [unk] so other speech does not get forced onto a command
+    String toVoskGrammar() {
+        JsonArray array = new JsonArray();
+        for (String phrase : phrases) {
+            array.add(phrase);
+        }
+        array.add(UNKNOWN);
+        return array.toString();
+    }
+
+    // Every command in a result, in order, e.g. [left, up] for "left [unk] up"; the longest phrase wins
+    List<String> matchAll(String text) {
+        List<String> matches = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return matches;
+        }
+        String[] words = text.split(" ");
+        int i = 0;
+        while (i < words.length) {
+            String longest = null;
+            int longestWords = 0;
+            for (String phrase : phrases) {
+                String[] phraseWords = phrase.split(" ");
+                if (phraseWords.length > longestWords && i + phraseWords.length <= words.length
+                        && Arrays.equals(phraseWords, Arrays.copyOfRange(words, i, i + phraseWords.length))) {
+                    longest = phrase;
+                    longestWords = phraseWords.length;
+                }
+            }
+            if (longest != null) {
+                matches.add(longest);
+            }
+            i += Math.max(1, longestWords);
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,71 @@
+package com.snakevoicegame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides which commands of the utterance being recognized to fire, given its successive hypotheses.
+ * A command of a partial hypothesis fires once it sits in the same place in two partials in a row; the
+ * final result fires whatever is left. Hypotheses get revised ("left up" may end as "up"), so commands
+ * already fired are matched against each hypothesis by their longest common subsequence, word and
+ * order, rather than by position: only commands outside that match are new. Not thread-safe.
+ */
+final class CommandStabilizer {
+
+    private List<String> lastPartial = Collections.emptyList();
+    private final List<String> fired = new ArrayList<>(); // in the utterance so far, in firing order
+
+    void reset() {
+        lastPartial = Collections.emptyList();
+        fired.clear();
+    }
+
+    // The commands of a partial hypothesis that became stable and have not fired yet
+    List<String> partial(List<String> commands) {
+        int stable = 0;
+        while (stable < commands.size() && stable < lastPartial.size()
+                && commands.get(stable).equals(lastPartial.get(stable))) {
+            stable++;
+        }
+        lastPartial = commands;
+        List<String> fresh = unfired(fired, commands.subList(0, stable));
+        fired.addAll(fresh);
+        return fresh;
+    }
+
+    // The commands of the final result that no partial fired; the next call starts a new utterance
+    List<String> result(List<String> commands) {
+        List<String> fresh = unfired(fired, commands);
+        reset();
+        return fresh;
+    }
+
+    // The commands of hypothesis outside its longest common subsequence with fired, in order
+    static List<String> unfired(List<String> fired, List<String> hypothesis) {
+        int n = fired.size();
+        int m = hypothesis.size();
+        int[][] lcs = new int[n + 1][m + 1]; // lcs[i][j]: of fired[i..] and hypothesis[j..]
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                lcs[i][j] = fired.get(i).equals(hypothesis.get(j))
+                        ? lcs[i + 1][j + 1] + 1
+                        : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        List<String> fresh = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (j < m) {
+            if (i < n && fired.get(i).equals(hypothesis.get(j))) {
+                i++;
+                j++;
+            } else if (i < n && lcs[i + 1][j] >= lcs[i][j + 1]) {
+                i++; // a fired command the hypothesis no longer has
+            } else {
+                fresh.add(hypothesis.get(j++));
+            }
+        }
+        return fresh;
+    }
+}
@@ -0,0 +1,281 @@
+package com.snakevoicegame;
+
+import javax.imageio.ImageIO;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Renders a {@link GameRecording} headlessly, one frame per tick, with the same {@link GameRenderer}
+ * the game panel paints with. Frames are split into chunks of {@link #FRAMES_PER_CHUNK} that are
+ * rendered on all cores; each chunk replays the game up to its first tick on its own.
+ *
+ * <p>Output is a PNG sequence or a single raw {@code bgr24} file that can be piped into a video encoder.
+ * With {@code --check} the frames are instead compared against an earlier PNG sequence, which makes a
+ * pixel-diff regression test for drawing changes (run it on the same JDK and fonts as the reference).
+ *
+ * <pre>
+ * java -cp SnakeVoiceGame.jar com.snakevoicegame.FrameExporter game.snkr --out frames [--format png|raw]
+ * java -cp SnakeVoiceGame.jar com.snakevoicegame.FrameExporter game.snkr --check frames [--out diffs]
+ * </pre>
+ */
+public final class FrameExporter {
+
+    private static final int FRAMES_PER_CHUNK = 32;
+    private static final int DIFF_MARK = 0xFF00FF;
+
+    public enum Format { PNG, RAW }
+
+    private final GameRecording recording;
+    private final int width;
+    private final int height;
+    private final long frameCount;
+
+    public FrameExporter(GameRecording recording) {
+        this(recording, Math.min(SnakeEngine.GRID_COLS, recording.getCols()) * GameRenderer.TILE_SIZE,
+                Math.min(SnakeEngine.GRID_ROWS, recording.getRows()) * GameRenderer.TILE_SIZE);
+    }
+
+    // Frames of the given size in pixels; larger boards scroll with the head like in the game
+    public FrameExporter(GameRecording recording, int width, int height) {
+        this.recording = recording;
+        this.width = width;
+        this.height = height;
+        this.frameCount = recording.getEndTick() + 1; // the start position plus every tick
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    // Writes frame-NNNNNN.png files into dir
+    public void exportPng(File dir) throws IOException {
+        mkdirs(dir);
+        forEachChunk((first, end) -> render(first, end, (frame, image) ->
+                ImageIO.write(image, "png", frameFile(dir, "frame", frame))));
+    }
+
+    // Writes all frames back to back into one file of width * height * 3 bytes per frame, in B, G, R order
+    public void exportRaw(File file) throws IOException {
+        long frameBytes = (long) width * height * 3;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // every frame has a fixed offset, so chunks write their frames in place from any thread
+            forEachChunk((first, end) -> render(first, end, (frame, image) -> {
+                ByteBuffer pixels = ByteBuffer.wrap(((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+                long position = frame * frameBytes;
+                while (pixels.hasRemaining()) {
+                    position += channel.write(pixels, position);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Compares every frame with frame-NNNNNN.png in referenceDir. A pixel differs when any channel is
+     * off by more than tolerance; for each differing frame a copy with those pixels marked in magenta
+     * is written to diffDir, if given. Returns the number of differing frames.
+     */
+    public long check(File referenceDir, int tolerance, File diffDir) throws IOException {
+        if (diffDir != null) {
+            mkdirs(diffDir);
+        }
+        long[] mismatched = new long[1];
+        forEachChunk((first, end) -> render(first, end, (frame, image) -> {
+            File reference = frameFile(referenceDir, "frame", frame);
+            BufferedImage expected = reference.isFile() ? ImageIO.read(reference) : null;
+            long pixels = countDifferences(image, expected, tolerance);
+            if (pixels == 0) {
+                return;
+            }
+            synchronized (mismatched) {
+                mismatched[0]++;
+            }
+            System.out.printf(Locale.ROOT, "frame %d: %s%n", frame,
+                    expected == null ? "no reference frame" : pixels + " pixels differ");
+            if (diffDir != null) {
+                ImageIO.write(image, "png", frameFile(diffDir, "diff", frame));
+            }
+        }));
+        return mismatched[0];
+    }
+
+    // Differing pixels, marked in image; every pixel when the sizes do not match
+    private static long countDifferences(BufferedImage image, BufferedImage expected, int tolerance) {
+        if (expected == null || expected.getWidth() != image.getWidth() || expected.getHeight() != image.getHeight()) {
+            return (long) image.getWidth() * image.getHeight();
+        }
+        int width = image.getWidth();
+        int[] actualRow = new int[width];
+        int[] expectedRow = new int[width];
+        long differing = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, actualRow, 0, width);
+            expected.getRGB(0, y, width, 1, expectedRow, 0, width);
+            for (int x = 0; x < width; x++) {
+                int a = actualRow[x];
+                int b = expectedRow[x];
+                if (a != b && (channelDelta(a, b, 16) > tolerance || channelDelta(a, b, 8) > tolerance
+                        || channelDelta(a, b, 0) > tolerance)) {
+                    differing++;
+                    image.setRGB(x, y, DIFF_MARK);
+                }
+            }
+        }
+        return differing;
+    }
+
+    private static int channelDelta(int a, int b, int shift) {
+        return Math.abs(((a >> shift) & 0xFF) - ((b >> shift) & 0xFF));
+    }
+
+    private interface ChunkTask {
+        void run(long firstFrame, long endFrame) throws IOException;
+    }
+
+    private interface FrameSink {
+        // image is reused for the next frame of the chunk
+        void accept(long frame, BufferedImage image) throws IOException;
+    }
+
+    private void forEachChunk(ChunkTask task) throws IOException {
+        int chunks = (int) ((frameCount + FRAMES_PER_CHUNK - 1) / FRAMES_PER_CHUNK);
+        try {
+            IntStream.range(0, chunks)
+                    .parallel()
+                    .forEach(chunk -> {
+                        long first = (long) chunk * FRAMES_PER_CHUNK;
+                        try {
+                            task.run(first, Math.min(frameCount, first + FRAMES_PER_CHUNK));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Replays up to firstFrame, then renders each tick up to endFrame into one reused image
+    private void render(long firstFrame, long endFrame, FrameSink sink) throws IOException {
+        ReplayPlayer player = new ReplayPlayer(recording);
+        SnakeEngine engine = player.seek(Math.max(0, firstFrame - 1));
+        long[] obstacles = engine.copyObstacles();
+        GameRenderer renderer = new GameRenderer(ControlMode.KEYBOARD, new Font(Font.DIALOG, Font.PLAIN, 12));
+        renderer.setSize(width, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+
+        for (long frame = firstFrame; frame < endFrame; frame++) {
+            int previousHead = engine.getSegmentCell(0);
+            if (frame > 0 && !player.step()) {
+                break; // the recording ended early
+            }
+            // published at 0 and drawn at the end of time, so the head has fully arrived in its cell
+            GameSnapshot snapshot = new GameSnapshot(engine, previousHead, obstacles, 0L);
+            Graphics2D g2 = image.createGraphics();
+            try {
+                renderer.paint(g2, snapshot, Long.MAX_VALUE);
+            } finally {
+                g2.dispose();
+            }
+            sink.accept(frame, image);
+        }
+    }
+
+    private static File frameFile(File dir, String prefix, long frame) {
+        return new File(dir, String.format(Locale.ROOT, "%s-%06d.png", prefix, frame));
+    }
+
+    private static void mkdirs(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        File input = null;
+        File out = null;
+        File check = null;
+        Format format = Format.PNG;
+        int tolerance = 0;
+        int[] size = null;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (arg) {
+                case "--out":
+                    out = new File(value);
+                    i++;
+                    break;
+                case "--format":
+                    format = Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    i++;
+                    break;
+                case "--check":
+                    check = new File(value);
+                    i++;
+                    break;
+                case "--tolerance":
+                    tolerance = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--size":
+                    String[] parts = value.toLowerCase(Locale.ROOT).split("x");
+                    size = new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[parts.length - 1].trim())};
+                    i++;
+                    break;
+                default:
+                    if (input != null || arg.startsWith("--")) {
+                        usage();
+                        return;
+                    }
+                    input = new File(arg);
+                    break;
+            }
+        }
+        if (input == null) {
+            usage();
+            return;
+        }
+
+        GameRecording recording = GameRecording.load(input);
+        FrameExporter exporter = size == null
+                ? new FrameExporter(recording)
+                : new FrameExporter(recording, size[0], size[1]);
+        System.out.printf(Locale.ROOT, "%d frames of %dx%d, %d threads%n", exporter.getFrameCount(),
+                exporter.width, exporter.height, Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        if (check != null) {
+            long mismatched = exporter.check(check, tolerance, out);
+            System.out.printf(Locale.ROOT, "%d of %d frames differ (%.2f s)%n", mismatched, exporter.getFrameCount(),
+                    (System.nanoTime() - start) / 1e9);
+            System.exit(mismatched == 0 ? 0 : 1);
+        } else if (format == Format.RAW) {
+            File file = out == null ? new File("frames.bgr") : out;
+            exporter.exportRaw(file);
+            System.out.printf(Locale.ROOT, "Wrote %s (%.2f s), e.g. ffmpeg -f rawvideo -pixel_format bgr24 "
+                    + "-video_size %dx%d -framerate 10 -i %s clip.mp4%n", file, (System.nanoTime() - start) / 1e9,
+                    exporter.width, exporter.height, file);
+        } else {
+            File dir = out == null ? new File("frames") : out;
+            exporter.exportPng(dir);
+            System.out.printf(Locale.ROOT, "Wrote %s (%.2f s)%n", dir, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: FrameExporter <recording.snkr> [--out DIR|FILE] [--format png|raw] "
+                + "[--size WxH] [--check REFERENCE_DIR] [--tolerance N]");
+        System.exit(2);
+    }
+}
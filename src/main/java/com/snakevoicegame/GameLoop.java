@@ -0,0 +1,272 @@
+package com.snakevoicegame;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link SnakeEngine} on its own thread with a fixed timestep. The tick length comes from
+ * {@link SnakeEngine#getTickDelay()}; elapsed time is accumulated so a late wake-up is caught up
+ * instead of stretching the game. After every tick an immutable {@link GameSnapshot} is published.
+ * Recent ticks are kept in a {@link RewindBuffer}; while rewinding is held the loop steps backwards.
+ */
+public final class GameLoop implements AutoCloseable {
+
+    public interface Listener {
+        // Called on the simulation thread right before each tick, e.g. to feed voice commands
+        void beforeTick();
+
+        void onTick(GameSnapshot snapshot);
+
+        // The snake died; rewinding may still undo this until onGameFinished
+        void onGameOver(GameSnapshot snapshot);
+
+        // The game over became final (restart, finishGame() or close), e.g. to save the score once
+        void onGameFinished(GameSnapshot snapshot);
+    }
+
+    public interface TickMonitor {
+        // Called on the simulation thread for each tick that directly follows another one
+        void onTickTiming(long targetNanos, long actualNanos);
+    }
+
+    private static final int MAX_CATCH_UP_TICKS = 5; // drop time rather than fast-forward after a long stall
+    private static final long IDLE_PARK_NANOS = 20_000_000L;
+    private static final int REWIND_TICKS = 512;
+    private static final int REWIND_KEYFRAME_INTERVAL = 32;
+    private static final int REWIND_SPEEDUP = 2; // rewinding runs at twice the game speed
+
+    private final SnakeEngine engine;
+    private final Listener listener;
+    private final Thread thread;
+    private final GameRecorder recorder = new GameRecorder();
+    private final RewindBuffer rewind;
+
+    private volatile boolean running = true;
+    private volatile boolean paused = false;
+    private volatile boolean rewinding = false;
+    private volatile boolean restartRequested = false;
+    private volatile boolean finishRequested = false;
+    private volatile long restartSeed;
+    private volatile GameMode restartMode;
+    private volatile Direction requestedDirection = null; // applied on the next tick
+    private volatile GameSnapshot snapshot;
+    private volatile TickMonitor tickMonitor;
+
+    private long[] obstacles;
+    private long lastTickNanos = 0; // start of the previous tick, 0 after a pause, rewind or restart
+    private boolean gameOverPending = false; // dead, but not final yet, so rewind may still undo it
+
+    public GameLoop(SnakeEngine engine, long seed, Listener listener) {
+        this.engine = engine;
+        this.listener = listener;
+        engine.reset(seed);
+        recorder.begin(engine, seed);
+        this.rewind = new RewindBuffer(engine.getCols(), engine.getRows(), REWIND_TICKS, REWIND_KEYFRAME_INTERVAL);
+        rewind.begin(engine);
+        this.obstacles = engine.copyObstacles();
+        this.snapshot = publish(headCell());
+        this.thread = new Thread(this::runLoop, "GameLoop");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void requestDirection(Direction direction) {
+        requestedDirection = direction;
+    }
+
+    // Starts a new game from the given seed
+    public void restart(long seed) {
+        restart(engine.getGameMode(), seed);
+    }
+
+    // Starts a new game of the given mode; the board size stays the same
+    public void restart(GameMode gameMode, long seed) {
+        restartMode = gameMode;
+        restartSeed = seed;
+        restartRequested = true;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Makes a pending game over final, so it can no longer be rewound and the listener gets
+     * onGameFinished; e.g. when the player leaves for the menu. The loop thread does it on its next pass,
+     * so this returns at once; see {@link #awaitFinished}.
+     */
+    public void finishGame() {
+        finishRequested = true;
+        LockSupport.unpark(thread);
+    }
+
+    // Waits up to timeoutNanos for the last finishGame() to be done; false if it is not. Never on the EDT.
+    public boolean awaitFinished(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (finishRequested && thread.isAlive()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.min(left, 1_000_000L));
+        }
+        return true;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        LockSupport.unpark(thread);
+    }
+
+    public void setTickMonitor(TickMonitor tickMonitor) {
+        this.tickMonitor = tickMonitor;
+    }
+
+    public boolean isRewinding() {
+        return rewinding;
+    }
+
+    // While set, the game steps back through the recent ticks instead of forwards
+    public void setRewinding(boolean rewinding) {
+        this.rewinding = rewinding;
+        LockSupport.unpark(thread);
+    }
+
+    private void runLoop() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        while (running) {
+            if (finishRequested) {
+                finishPendingGameOver();
+                finishRequested = false;
+            }
+            if (restartRequested) {
+                restartRequested = false;
+                finishPendingGameOver();
+                long seed = restartSeed;
+                engine.reset(restartMode, seed);
+                recorder.begin(engine, seed);
+                rewind.begin(engine);
+                obstacles = engine.copyObstacles();
+                requestedDirection = null;
+                paused = false;
+                snapshot = publish(headCell());
+                listener.onTick(snapshot);
+                previous = System.nanoTime();
+                accumulator = 0;
+                lastTickNanos = 0;
+            }
+
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            if (rewinding && !paused) {
+                accumulator = 0;
+                lastTickNanos = 0;
+                long stepNanos = engine.getTickDelay() * 1_000_000L / REWIND_SPEEDUP;
+                if (!rewindOneTick()) {
+                    stepNanos = IDLE_PARK_NANOS; // nothing left to rewind
+                }
+                LockSupport.parkNanos(stepNanos);
+                previous = System.nanoTime();
+                continue;
+            }
+
+            if (paused || !engine.isRunning()) {
+                accumulator = 0;
+                lastTickNanos = 0;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            long stepNanos = engine.getTickDelay() * 1_000_000L;
+            if (accumulator > stepNanos * MAX_CATCH_UP_TICKS) {
+                accumulator = stepNanos * MAX_CATCH_UP_TICKS;
+            }
+            while (accumulator >= stepNanos && engine.isRunning() && !paused) {
+                accumulator -= stepNanos;
+                tick();
+                stepNanos = engine.getTickDelay() * 1_000_000L;
+            }
+            if (engine.isRunning()) {
+                LockSupport.parkNanos(stepNanos - accumulator);
+            }
+        }
+        finishPendingGameOver(); // closed right after a crash
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        TickMonitor monitor = tickMonitor;
+        if (monitor != null && lastTickNanos != 0) {
+            monitor.onTickTiming(engine.getTickDelay() * 1_000_000L, start - lastTickNanos);
+        }
+        lastTickNanos = start;
+        listener.beforeTick();
+        Direction next = requestedDirection;
+        requestedDirection = null;
+        int previousHead = headCell();
+        Direction before = engine.getDirection();
+        boolean alive = engine.step(next);
+        recorder.afterStep(engine, before);
+        snapshot = publish(previousHead);
+        if (alive) {
+            rewind.record(engine);
+            listener.onTick(snapshot);
+        } else {
+            gameOverPending = true;
+            listener.onGameOver(snapshot);
+        }
+    }
+
+    // Also undoes a game over that is not final yet: the state after the last surviving tick is restored first
+    private boolean rewindOneTick() {
+        if (!engine.isRunning() && !gameOverPending) {
+            return false;
+        }
+        long target = engine.isRunning() ? engine.getTicks() - 1 : rewind.getNewestTick();
+        if (target < rewind.getOldestTick() || !rewind.rewindTo(target, engine)) {
+            return false;
+        }
+        recorder.truncate(target);
+        gameOverPending = false;
+        requestedDirection = null;
+        snapshot = publish(headCell());
+        listener.onTick(snapshot);
+        return true;
+    }
+
+    // Inputs of the current game so far; only call from the listener callbacks (loop thread)
+    public GameRecording getRecording() {
+        return recorder.toRecording();
+    }
+
+    private void finishPendingGameOver() {
+        if (gameOverPending) {
+            gameOverPending = false;
+            listener.onGameFinished(snapshot);
+        }
+    }
+
+    private int headCell() {
+        return engine.getSegmentCell(0);
+    }
+
+    private GameSnapshot publish(int previousHeadCell) {
+        return new GameSnapshot(engine, previousHeadCell, obstacles, System.nanoTime());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+}
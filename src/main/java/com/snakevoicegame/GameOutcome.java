@@ -0,0 +1,9 @@
+package com.snakevoicegame;
+
+public enum GameOutcome {
+    RUNNING,
+    HIT_WALL,
+    HIT_OBSTACLE,
+    HIT_SELF,
+    BOARD_FULL
+}
@@ -2,57 +2,52 @@ package com.snakevoicegame;
 
 import javax.swing.JPanel;
 import javax.swing.Timer;
+import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.RenderingHints;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.Random;
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
 
 public final class GamePanel extends JPanel implements ActionListener {
 
-    private static final int TILE_SIZE = 20;
-    private static final int GRID_COLS = 30; // width = 600
-    private static final int GRID_ROWS = 28; // height = 560
-    private static final int PANEL_WIDTH = GRID_COLS * TILE_SIZE;
+    private static final int TILE_SIZE = GameRenderer.TILE_SIZE;
+    private static final int GRID_COLS = SnakeEngine.GRID_COLS; // width = 600
+    private static final int GRID_ROWS = SnakeEngine.GRID_ROWS; // height = 560
+    private static final int PANEL_WIDTH = GRID_COLS * TILE_SIZE; // larger boards scroll inside this view
     private static final int PANEL_HEIGHT = GRID_ROWS * TILE_SIZE;
-    private static final int GAME_SPEED_MS = 150; // classic base delay (ms). smaller = faster
-
-    private final int[] snakeX = new int[GRID_COLS * GRID_ROWS];
-    private final int[] snakeY = new int[GRID_COLS * GRID_ROWS];
-    private int snakeLength;
-
-    private int foodX;
-    private int foodY;
-    private final Random random = new Random();
-
-    private char direction = 'R'; // U, D, L, R
-    private boolean running = false;
-    private boolean paused = false;
-    private int score = 0;
-
-    private final Timer timer = new Timer(GAME_SPEED_MS, this);
-    private VoskVoiceController voiceController;
-    private final ControlMode controlMode;
-    private final GameMode gameMode;
+    private static final String LAST_GAME_FILE = ".snakevoicegame-last-game.snkr";
+    private static final long FINISH_WAIT_NANOS = 1_000_000_000L;
+    private static final int FRAME_DELAY_MS = 16; // repaint rate for smooth movement between ticks
+
+    // Ticks run on the loop's own thread; painting only reads its published snapshots
+    private final GameLoop loop;
+    private final Timer frameTimer = new Timer(FRAME_DELAY_MS, this);
+    private volatile VoskVoiceController voiceController; // created by the first voice session, then kept
+    private volatile ControlMode controlMode; // read by the loop thread before each tick
+    private VoiceSettings voiceSettings = new VoiceSettings();
     private final ScoreManager scoreManager = new ScoreManager();
-    private boolean achievedNewHigh = false;
-    private int finalHighScore = 0;
-    private int finalLowScore = 0;
+    private final GameRenderer renderer;
+    private final ActiveRenderCanvas canvas; // null when painting passively through Swing
+    private final PerformanceOverlay overlay = new PerformanceOverlay();
 
-    // Special food ("bolt dot") support
-    private boolean isBoltFood = false; // false = small dot (10 pts), true = bolt dot (50 pts)
-    private int lastBoltAttemptSegment = 0; // floor(score / 50) when we last attempted to spawn bolt
-    // bolt spawn chance depends on game mode (see getBoltSpawnChance)
+    // What the panel currently shows; only touched on the EDT, so partial repaints all draw the same tick
+    private GameSnapshot frameSnapshot;
+    private final Rectangle lastHeadBounds = new Rectangle(); // empty when the head needs no cleanup
+    private final Rectangle dirtyBounds = new Rectangle();
+    private String shownVoiceStatus;
+    private boolean shownListening;
 
-    // Labyrinth mode obstacles
-    private boolean[][] obstacleGrid; // [x][y] true means blocked
+    // Fixed seed for reproducible sessions (game n uses seed + n), or null for a random game each time
+    private final Long sessionSeed;
+    private long gamesStarted = 0;
 
     public GamePanel() {
         this(ControlMode.KEYBOARD, GameMode.CLASSIC);
@@ -63,339 +58,230 @@ public final class GamePanel extends JPanel implements ActionListener {
     }
 
     public GamePanel(ControlMode controlMode, GameMode gameMode) {
-        setPreferredSize(new Dimension(PANEL_WIDTH, PANEL_HEIGHT));
+        this(controlMode, gameMode, null);
+    }
+
+    public GamePanel(ControlMode controlMode, GameMode gameMode, Long seed) {
+        this(controlMode, gameMode, seed, GRID_COLS, GRID_ROWS);
+    }
+
+    public GamePanel(ControlMode controlMode, GameMode gameMode, Long seed, int cols, int rows) {
+        this(controlMode, gameMode, seed, cols, rows, 0);
+    }
+
+    // activeFps > 0 draws from a render thread at that rate instead of through Swing's repaint
+    public GamePanel(ControlMode controlMode, GameMode gameMode, Long seed, int cols, int rows, int activeFps) {
+        setPreferredSize(new Dimension(Math.min(PANEL_WIDTH, cols * TILE_SIZE), Math.min(PANEL_HEIGHT, rows * TILE_SIZE)));
         setBackground(Color.BLACK);
         setFocusable(true);
         this.controlMode = controlMode == null ? ControlMode.KEYBOARD : controlMode;
-        this.gameMode = gameMode == null ? GameMode.CLASSIC : gameMode;
+        this.renderer = new GameRenderer(this.controlMode, getFont());
+        this.sessionSeed = seed;
+        this.loop = new GameLoop(new SnakeEngine(gameMode, cols, rows, 0L), nextSeed(), new LoopListener());
+        this.frameSnapshot = loop.getSnapshot();
+        loop.setTickMonitor(overlay);
         
         // Always add key listener for pause functionality
-        addKeyListener(new KeyHandler());
-        
+        KeyHandler keyHandler = new KeyHandler();
+        addKeyListener(keyHandler);
+        if (activeFps > 0) {
+            canvas = new ActiveRenderCanvas(loop, renderer, overlay, activeFps, this::updateActiveHud);
+            canvas.addKeyListener(keyHandler);
+            setLayout(new BorderLayout());
+            add(canvas, BorderLayout.CENTER);
+        } else {
+            canvas = null;
+        }
+
+        // Nothing plays, paints or listens until startSession(); the panel may sit behind the menu for long
+        loop.setPaused(true);
+        loop.start();
+    }
+
+    /**
+     * Starts a new game in place, possibly with other control and game modes. The loop thread, engine,
+     * renderer caches and the loaded Vosk model are all kept, so this is cheap even for voice games;
+     * only the microphone is opened again after a keyboard session.
+     */
+    public void startSession(ControlMode controlMode, GameMode gameMode) {
+        this.controlMode = controlMode == null ? ControlMode.KEYBOARD : controlMode;
+        renderer.setControlMode(this.controlMode);
         if (this.controlMode == ControlMode.VOICE) {
-            voiceController = new VoskVoiceController();
+            if (voiceController == null) {
+                voiceController = new VoskVoiceController(true, voiceSettings);
+            } else {
+                voiceController.start();
+            }
+        } else if (voiceController != null) {
+            voiceController.stop();
+        }
+        shownVoiceStatus = null;
+        renderer.setVoiceStatus(null, false);
+        loop.restart(gameMode == null ? GameMode.CLASSIC : gameMode, nextSeed());
+        frameTimer.start();
+        repaint();
+        if (canvas != null) {
+            canvas.requestFocusInWindow();
         } else {
-            voiceController = null;
+            requestFocusInWindow();
+        }
+    }
+
+    // Shared with the settings screen; the grammar choice applies from the next voice controller on
+    public void setVoiceSettings(VoiceSettings voiceSettings) {
+        this.voiceSettings = voiceSettings;
+    }
+
+    // Pauses the game and stops listening while the panel is not shown, e.g. behind the menu
+    public void suspend() {
+        frameTimer.stop();
+        loop.setPaused(true);
+        loop.finishGame(); // a crash left behind on the way out is final
+        if (voiceController != null) {
+            voiceController.stop();
         }
-        startGame();
+    }
+
+    // Waits up to a second for suspend() to have saved the crash; e.g. before exiting. Never on the EDT.
+    public void awaitSuspended() {
+        loop.awaitFinished(FINISH_WAIT_NANOS);
     }
 
     @Override
     public void addNotify() {
         super.addNotify();
-        requestFocusInWindow();
+        if (canvas != null) {
+            canvas.requestFocusInWindow();
+        } else {
+            requestFocusInWindow();
+        }
     }
 
     @Override
     public void removeNotify() {
         super.removeNotify();
+        frameTimer.stop();
+        overlay.setVisible(false);
+        loop.close();
         if (voiceController != null) {
             voiceController.close();
         }
     }
 
     private void startGame() {
-        score = 0;
-        snakeLength = 3;
-        int startX = GRID_COLS / 2;
-        int startY = GRID_ROWS / 2;
-        for (int i = 0; i < snakeLength; i++) {
-            snakeX[i] = startX - i;
-            snakeY[i] = startY;
-        }
-        direction = 'R';
-        // reset special food / speed state
-        isBoltFood = false;
-        lastBoltAttemptSegment = 0;
-        timer.setDelay(getBaseDelay());
-
-        // obstacles for labyrinth mode
-        if (gameMode == GameMode.LABYRINTH) {
-            generateLabyrinth(startX, startY);
-        } else {
-            obstacleGrid = null;
-        }
-
-        placeFood();
-        running = true;
-        timer.start();
+        loop.restart(nextSeed());
     }
 
-    private void placeFood() {
-        boolean onSnake;
-        do {
-            onSnake = false;
-            foodX = random.nextInt(GRID_COLS);
-            foodY = random.nextInt(GRID_ROWS);
-            for (int i = 0; i < snakeLength; i++) {
-                if (snakeX[i] == foodX && snakeY[i] == foodY) {
-                    onSnake = true;
-                    break;
-                }
-            }
-            if (!onSnake && obstacleGrid != null && obstacleGrid[foodX][foodY]) {
-                onSnake = true; // retry if on obstacle
-            }
-        } while (onSnake);
-
-        // Decide food type for the newly placed food
-        isBoltFood = shouldSpawnBoltNow();
+    private long nextSeed() {
+        return sessionSeed == null ? System.nanoTime() : sessionSeed + gamesStarted++;
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Draw header background with gradient
-        java.awt.GradientPaint headerGradient = new java.awt.GradientPaint(
-                0, 0, new Color(30, 30, 40),
-                0, 50, new Color(20, 20, 30)
-        );
-        g2.setPaint(headerGradient);
-        g2.fillRect(0, 0, getWidth(), 55);
-
-        // Draw instruction at top-center
-        g2.setColor(new Color(220, 220, 255));
-        g2.setFont(getFont().deriveFont(Font.BOLD, 14f));
-        String instruction = controlMode == ControlMode.VOICE
-                ? "Say UP, DOWN, LEFT, or RIGHT to move (P to pause)"
-                : "Use ARROW KEYS to move (P to pause)";
-        FontMetrics fmInstr = g2.getFontMetrics();
-        int instrX = (getWidth() - fmInstr.stringWidth(instruction)) / 2;
-        g2.drawString(instruction, instrX, 18);
-
-        // Draw score at top-left with better styling
-        g2.setFont(getFont().deriveFont(Font.BOLD, 16f));
-        g2.setColor(new Color(255, 215, 0)); // Gold
-        g2.drawString("Score: " + score, 10, 40);
-
-        // Draw mode at top-right
-        g2.setColor(new Color(150, 200, 255));
-        String modeText = "Mode: " + gameMode.name();
-        int modeX = getWidth() - fmInstr.stringWidth(modeText) - 10;
-        g2.drawString(modeText, modeX, 40);
-
-        // Draw voice status indicator if using voice control
-        if (controlMode == ControlMode.VOICE && voiceController != null) {
-            drawVoiceStatus(g2);
+        // Swing hands every paint its own Graphics, so no extra create()/dispose() per frame
+        if (canvas != null) {
+            super.paintComponent(g); // the render thread owns the renderer
+            return;
         }
+        Graphics2D g2 = (Graphics2D) g;
+        renderer.setSize(getWidth(), getHeight());
+        renderer.setPaused(loop.isPaused());
+        long start = System.nanoTime();
+        renderer.paint(g2, frameSnapshot, start);
+        overlay.recordPaint(System.nanoTime() - start);
+        overlay.paint(g2);
+    }
 
-        // Draw food with 3D effect
-        int fx = foodX * TILE_SIZE;
-        int fy = foodY * TILE_SIZE;
-        if (isBoltFood) {
-            // Gold bolt food with gradient
-            java.awt.GradientPaint foodGradient = new java.awt.GradientPaint(
-                    fx, fy, new Color(255, 230, 100),
-                    fx + TILE_SIZE, fy + TILE_SIZE, new Color(255, 180, 0)
-            );
-            g2.setPaint(foodGradient);
-            g2.fillOval(fx + 2, fy + 2, TILE_SIZE - 4, TILE_SIZE - 4);
-            g2.setColor(new Color(255, 215, 0));
-            g2.setStroke(new java.awt.BasicStroke(2));
-            g2.drawOval(fx + 2, fy + 2, TILE_SIZE - 4, TILE_SIZE - 4);
-        } else {
-            // Regular food with gradient
-            java.awt.GradientPaint foodGradient = new java.awt.GradientPaint(
-                    fx, fy, new Color(255, 100, 100),
-                    fx + TILE_SIZE, fy + TILE_SIZE, new Color(200, 40, 40)
-            );
-            g2.setPaint(foodGradient);
-            g2.fillOval(fx + 3, fy + 3, TILE_SIZE - 6, TILE_SIZE - 6);
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        GameSnapshot snapshot = loop.getSnapshot();
+        if (!snapshot.isRunning() && controlMode == ControlMode.VOICE) {
+            applyRestartIfAny();
         }
-
-        // Draw obstacles (labyrinth) with 3D effect
-        if (obstacleGrid != null) {
-            for (int x = 0; x < GRID_COLS; x++) {
-                for (int y = 0; y < GRID_ROWS; y++) {
-                    if (obstacleGrid[x][y]) {
-                        int ox = x * TILE_SIZE;
-                        int oy = y * TILE_SIZE;
-                        java.awt.GradientPaint obstacleGradient = new java.awt.GradientPaint(
-                                ox, oy, new Color(100, 100, 110),
-                                ox + TILE_SIZE, oy + TILE_SIZE, new Color(60, 60, 70)
-                        );
-                        g2.setPaint(obstacleGradient);
-                        g2.fillRect(ox, oy, TILE_SIZE, TILE_SIZE);
-                        g2.setColor(new Color(40, 40, 50));
-                        g2.drawRect(ox, oy, TILE_SIZE - 1, TILE_SIZE - 1);
-                    }
-                }
-            }
+        if (canvas != null) {
+            return; // the canvas draws every frame itself
         }
-
-        // Draw snake with gradient and rounded edges
-        for (int i = 0; i < snakeLength; i++) {
-            int sx = snakeX[i] * TILE_SIZE;
-            int sy = snakeY[i] * TILE_SIZE;
-            
-            if (i == 0) {
-                // Head with bright gradient
-                java.awt.GradientPaint headGradient = new java.awt.GradientPaint(
-                        sx, sy, new Color(140, 255, 140),
-                        sx + TILE_SIZE, sy + TILE_SIZE, new Color(80, 200, 80)
-                );
-                g2.setPaint(headGradient);
-                g2.fillRoundRect(sx + 1, sy + 1, TILE_SIZE - 2, TILE_SIZE - 2, 6, 6);
-                g2.setColor(new Color(60, 180, 60));
-                g2.setStroke(new java.awt.BasicStroke(2));
-                g2.drawRoundRect(sx + 1, sy + 1, TILE_SIZE - 2, TILE_SIZE - 2, 6, 6);
-            } else {
-                // Body with subtle gradient
-                java.awt.GradientPaint bodyGradient = new java.awt.GradientPaint(
-                        sx, sy, new Color(100, 200, 100),
-                        sx + TILE_SIZE, sy + TILE_SIZE, new Color(60, 160, 60)
-                );
-                g2.setPaint(bodyGradient);
-                g2.fillRoundRect(sx + 2, sy + 2, TILE_SIZE - 4, TILE_SIZE - 4, 4, 4);
-            }
+        if (overlay.update(System.nanoTime())) {
+            repaint(overlay.getBounds());
         }
-
-        if (!running) {
-            drawGameOver(g2);
-        } else if (paused) {
-            drawPaused(g2);
+        if (loop.isPaused() && snapshot == frameSnapshot) {
+            return; // the pause toggle already repainted everything
         }
-        g2.dispose();
+        refresh(snapshot);
     }
 
-    private void drawVoiceStatus(Graphics2D g2) {
-        String status = voiceController.getStatusMessage();
-        boolean isListening = voiceController.isListening();
-        
-        // Draw status indicator in top-right corner
-        int x = getWidth() - 150;
-        int y = 15;
-        
-        // Draw background
-        g2.setColor(new Color(0, 0, 0, 100));
-        g2.fillRoundRect(x - 5, y - 12, 145, 22, 8, 8);
-        
-        // Draw listening indicator
-        if (isListening) {
-            g2.setColor(new Color(100, 255, 100));
-            g2.fillOval(x, y - 6, 12, 12);
-            g2.setColor(new Color(50, 200, 50));
-            g2.drawOval(x, y - 6, 12, 12);
-        } else {
-            g2.setColor(new Color(150, 150, 150));
-            g2.fillOval(x, y - 6, 12, 12);
+    // Render thread: HUD state the canvas frame needs
+    private void updateActiveHud() {
+        renderer.setPaused(loop.isPaused());
+        if (controlMode == ControlMode.VOICE && voiceController != null) {
+            renderer.setVoiceStatus(voiceController.getStatusMessage(), voiceController.isListening());
         }
-        
-        // Draw status text
-        g2.setColor(isListening ? new Color(200, 255, 200) : new Color(200, 200, 200));
-        g2.setFont(getFont().deriveFont(Font.PLAIN, 11f));
-        g2.drawString(status, x + 18, y + 4);
     }
 
-    private void drawPaused(Graphics2D g2) {
-        g2.setColor(new Color(0, 0, 0, 150));
-        g2.fillRect(0, 0, getWidth(), getHeight());
-        
-        g2.setColor(new Color(255, 255, 100));
-        g2.setFont(getFont().deriveFont(Font.BOLD, 56f));
-        FontMetrics fm = g2.getFontMetrics();
-        String pausedText = "PAUSED";
-        int x = (getWidth() - fm.stringWidth(pausedText)) / 2;
-        int y = getHeight() / 2;
-        
-        // Draw shadow
-        g2.setColor(new Color(0, 0, 0, 100));
-        g2.drawString(pausedText, x + 3, y + 3);
-        
-        // Draw text
-        g2.setColor(new Color(255, 255, 100));
-        g2.drawString(pausedText, x, y);
-        
-        g2.setFont(getFont().deriveFont(Font.PLAIN, 18f));
-        FontMetrics fm2 = g2.getFontMetrics();
-        String hint = "Press P to resume";
-        int x2 = (getWidth() - fm2.stringWidth(hint)) / 2;
-        g2.setColor(Color.WHITE);
-        g2.drawString(hint, x2, y + 40);
-    }
-
-    private void drawGameOver(Graphics2D g2) {
-        String over = "Game Over!";
-        String prompt = controlMode == ControlMode.VOICE ? "Say RESTART to play again" : "Press ENTER to restart";
-
-        // Draw semi-transparent overlay with gradient
-        java.awt.GradientPaint overlayGradient = new java.awt.GradientPaint(
-                0, 0, new Color(0, 0, 0, 180),
-                0, getHeight(), new Color(20, 20, 40, 200)
-        );
-        g2.setPaint(overlayGradient);
-        g2.fillRect(0, 0, getWidth(), getHeight());
-
-        // Draw "Game Over" with shadow
-        g2.setFont(getFont().deriveFont(Font.BOLD, 56f));
-        FontMetrics fm = g2.getFontMetrics();
-        int x = (getWidth() - fm.stringWidth(over)) / 2;
-        int y = getHeight() / 2 - fm.getHeight();
-        
-        g2.setColor(new Color(0, 0, 0, 150));
-        g2.drawString(over, x + 4, y + 4);
-        g2.setColor(new Color(255, 100, 100));
-        g2.drawString(over, x, y);
-
-        g2.setFont(getFont().deriveFont(Font.PLAIN, 18f));
-        FontMetrics fm2 = g2.getFontMetrics();
-        int x2 = (getWidth() - fm2.stringWidth(prompt)) / 2;
-        int y2 = y + 50;
-        g2.setColor(new Color(200, 200, 255));
-        g2.drawString(prompt, x2, y2);
-
-        // Score summary and new high indicator
-        String summary = "Score: " + score + "   High: " + finalHighScore + "   Low: " + (finalLowScore == 0 ? "-" : Integer.toString(finalLowScore));
-        int x3 = (getWidth() - fm2.stringWidth(summary)) / 2;
-        g2.setColor(Color.WHITE);
-        g2.drawString(summary, x3, y2 + 35);
-        
-        if (achievedNewHigh) {
-            String nh = "★ NEW HIGH SCORE! ★";
-            g2.setFont(getFont().deriveFont(Font.BOLD, 24f));
-            FontMetrics fm3 = g2.getFontMetrics();
-            int x4 = (getWidth() - fm3.stringWidth(nh)) / 2;
-            
-            // Pulsing effect with gradient
-            java.awt.GradientPaint highScoreGradient = new java.awt.GradientPaint(
-                    x4, y2 + 60, new Color(255, 230, 100),
-                    x4 + fm3.stringWidth(nh), y2 + 80, new Color(255, 180, 0)
-            );
-            g2.setPaint(highScoreGradient);
-            g2.drawString(nh, x4, y2 + 70);
+    /**
+     * Repaints only what changed since the last frame: the cells the engine marked dirty in this tick,
+     * the header when the score or voice status changed, and the sliding head. The regions are queued with
+     * repaint(rect), so RepaintManager paints them in one pass per frame. Anything that is not a
+     * single tick forwards on a fixed camera (restart, rewind, skipped ticks, game over, a scrolling
+     * board) repaints the whole panel.
+     */
+    private void refresh(GameSnapshot snapshot) {
+        GameSnapshot previous = frameSnapshot;
+        frameSnapshot = snapshot;
+        boolean voiceChanged = false;
+        if (controlMode == ControlMode.VOICE && voiceController != null) {
+            String status = voiceController.getStatusMessage();
+            boolean listening = voiceController.isListening();
+            voiceChanged = !Objects.equals(status, shownVoiceStatus) || listening != shownListening;
+            shownVoiceStatus = status;
+            shownListening = listening;
+            renderer.setVoiceStatus(status, listening);
         }
-    }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (running && !paused) {
-            if (controlMode == ControlMode.VOICE) {
-                applyVoiceDirectionIfAny();
-            }
-            moveSnake();
-            checkFood();
-            checkCollisions();
-        } else if (!running) {
-            if (controlMode == ControlMode.VOICE) {
-                applyRestartIfAny();
+        boolean oneTick = snapshot == previous || snapshot.getTick() == previous.getTick() + 1;
+        if (!oneTick || !snapshot.isRunning() || !renderer.isCameraFixed(snapshot)) {
+            lastHeadBounds.setSize(0, 0);
+            repaint();
+            return;
+        }
+        if (snapshot != previous) {
+            for (int i = 0; i < snapshot.getDirtyCellCount(); i++) {
+                paintCells(snapshot.getDirtyX(i), snapshot.getDirtyY(i), snapshot.getDirtyX(i), snapshot.getDirtyY(i));
             }
         }
-        repaint();
+        if (voiceChanged || snapshot.getScore() != previous.getScore()) {
+            repaint(0, 0, getWidth(), GameRenderer.HEADER_HEIGHT);
+        }
+
+        // The head slides from its previous cell every frame; also clear where it was drawn last frame
+        if (!lastHeadBounds.isEmpty()) {
+            repaint(lastHeadBounds);
+        }
+        cellBounds(lastHeadBounds, snapshot.getPreviousHeadX(), snapshot.getPreviousHeadY(),
+                snapshot.getSegmentX(0), snapshot.getSegmentY(0));
+        repaint(lastHeadBounds);
+    }
+
+    private void paintCells(int x0, int y0, int x1, int y1) {
+        cellBounds(dirtyBounds, x0, y0, x1, y1);
+        repaint(dirtyBounds);
+    }
+
+    // Pixels of the cells spanned by two corners, one pixel wider for antialiased edges
+    private static void cellBounds(Rectangle bounds, int x0, int y0, int x1, int y1) {
+        bounds.setBounds(Math.min(x0, x1) * TILE_SIZE - 1, Math.min(y0, y1) * TILE_SIZE - 1,
+                (Math.abs(x1 - x0) + 1) * TILE_SIZE + 2, (Math.abs(y1 - y0) + 1) * TILE_SIZE + 2);
     }
 
     private void applyRestartIfAny() {
         if (voiceController == null || !voiceController.isEnabled()) {
             return;
         }
-        String cmd = voiceController.getCommand();
-        if (cmd == null) {
+        VoiceCommand command = voiceController.pollCommand(); // turns said after the game ended are dropped
+        if (command == null) {
             return;
         }
-        if ("restart".equals(cmd)) {
+        if (command.getType() == VoiceCommand.Type.RESTART) {
             System.out.println("GamePanel: Restarting game via voice command");
             startGame();
         }
@@ -405,173 +291,64 @@ public final class GamePanel extends JPanel implements ActionListener {
         if (voiceController == null || !voiceController.isEnabled()) {
             return;
         }
-        String cmd = voiceController.getCommand();
-        if (cmd == null) {
-            return;
-        }
-        System.out.println("GamePanel: Applying voice command: " + cmd);
-        switch (cmd) {
-            case "up":
-                if (direction != 'D') direction = 'U';
-                break;
-            case "down":
-                if (direction != 'U') direction = 'D';
-                break;
-            case "left":
-                if (direction != 'R') direction = 'L';
-                break;
-            case "right":
-                if (direction != 'L') direction = 'R';
-                break;
-            default:
-                break;
+        // one turn per tick; a quick "left ... up" stays queued and takes the next tick
+        VoiceCommand command = voiceController.pollCommand();
+        if (command == null || command.getDirection() == null) {
+            return; // a restart while playing is ignored
         }
+        overlay.recordVoiceLatency(System.nanoTime() - command.getCaptureNanos());
+        System.out.println("GamePanel: Applying voice command: " + command);
+        loop.requestDirection(command.getDirection());
     }
 
-    private void moveSnake() {
-        for (int i = snakeLength - 1; i > 0; i--) {
-            snakeX[i] = snakeX[i - 1];
-            snakeY[i] = snakeY[i - 1];
-        }
-
-        switch (direction) {
-            case 'U':
-                snakeY[0] -= 1;
-                break;
-            case 'D':
-                snakeY[0] += 1;
-                break;
-            case 'L':
-                snakeX[0] -= 1;
-                break;
-            case 'R':
-                snakeX[0] += 1;
-                break;
-            default:
-                break;
-        }
+    // Shows hi/low as they will be once this score counts; rewinding may still undo the crash
+    private void gameOver(GameSnapshot snapshot) {
+        int score = snapshot.getScore();
+        GameMode gameMode = snapshot.getGameMode();
+        int high = scoreManager.getHighScore(gameMode);
+        int low = scoreManager.getLowScore(gameMode);
+        renderer.setFinalScores(score > high, Math.max(high, score), low == 0 || score < low ? score : low);
     }
 
-    private void checkFood() {
-        if (snakeX[0] == foodX && snakeY[0] == foodY) {
-            snakeLength++;
-            score += isBoltFood ? 50 : 10;
-            updateSpeedBasedOnScore();
-            placeFood();
-        }
+    // Runs on the loop thread once the game over is final, so saving never delays painting or input
+    private void gameFinished(GameSnapshot snapshot) {
+        scoreManager.submitScore(snapshot.getGameMode(), snapshot.getScore());
+        saveRecording(loop.getRecording());
     }
 
-    private void checkCollisions() {
-        // Wall collision
-        if (snakeX[0] < 0 || snakeX[0] >= GRID_COLS || snakeY[0] < 0 || snakeY[0] >= GRID_ROWS) {
-            gameOver();
-            return;
-        }
-        // Labyrinth obstacle collision
-        if (obstacleGrid != null) {
-            int hx = snakeX[0];
-            int hy = snakeY[0];
-            if (hx >= 0 && hx < GRID_COLS && hy >= 0 && hy < GRID_ROWS && obstacleGrid[hx][hy]) {
-                gameOver();
-                return;
-            }
+    // Keep the last game so it can be replayed with ReplayPlayer (e.g. attached to a bug report)
+    private void saveRecording(GameRecording recording) {
+        File file = new File(System.getProperty("user.home", "."), LAST_GAME_FILE);
+        try {
+            recording.save(file);
+            System.out.println("GamePanel: Saved replay of the last game to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("GamePanel: Could not save replay: " + e.getMessage());
         }
-        // Self collision
-        for (int i = 1; i < snakeLength; i++) {
-            if (snakeX[0] == snakeX[i] && snakeY[0] == snakeY[i]) {
-                gameOver();
-                return;
-            }
-        }
-    }
-
-    private void gameOver() {
-        running = false;
-        timer.stop();
-        // submit score and capture hi/low for display
-        achievedNewHigh = score > scoreManager.getHighScore(gameMode);
-        scoreManager.submitScore(gameMode, score);
-        finalHighScore = scoreManager.getHighScore(gameMode);
-        finalLowScore = scoreManager.getLowScore(gameMode);
     }
 
-    // Increase speed based on score thresholds (start slow, then speed up)
-    private void updateSpeedBasedOnScore() {
-        int base = getBaseDelay();
-        int newDelay = base;
-        if (score >= 500) {
-            newDelay = (int) Math.round(base * 0.4);
-        } else if (score >= 400) {
-            newDelay = (int) Math.round(base * 0.5);
-        } else if (score >= 300) {
-            newDelay = (int) Math.round(base * 0.6);
-        } else if (score >= 200) {
-            newDelay = (int) Math.round(base * 0.7);
-        } else if (score >= 100) {
-            newDelay = (int) Math.round(base * 0.85);
+    private final class LoopListener implements GameLoop.Listener {
+        @Override
+        public void beforeTick() {
+            if (controlMode == ControlMode.VOICE) {
+                applyVoiceDirectionIfAny();
+            }
         }
-        timer.setDelay(newDelay);
-    }
 
-    // Decide whether to spawn a bolt dot now. We try at most once per 50-score segment.
-    private boolean shouldSpawnBoltNow() {
-        int segment = score / 50; // 0..n
-        if (segment >= 1 && segment != lastBoltAttemptSegment) {
-            lastBoltAttemptSegment = segment;
-            return random.nextDouble() < getBoltSpawnChance();
+        @Override
+        public void onTick(GameSnapshot snapshot) {
+            // the frame timer repaints continuously
         }
-        return false;
-    }
 
-    private int getBaseDelay() {
-        switch (gameMode) {
-            case INTERMEDIATE:
-                return 270; // slower start
-            case EXPERT:
-                return 240; // still slow at start, but a bit faster
-            case LABYRINTH:
-                return 300; // slow start due to obstacles
-            case CLASSIC:
-            default:
-                return 300; // very slow start
+        @Override
+        public void onGameOver(GameSnapshot snapshot) {
+            gameOver(snapshot);
+            // the frame timer sees the finished game and repaints everything
         }
-    }
 
-    private double getBoltSpawnChance() {
-        switch (gameMode) {
-            case INTERMEDIATE:
-                return 0.4;
-            case EXPERT:
-                return 0.3;
-            case LABYRINTH:
-                return 0.5;
-            case CLASSIC:
-            default:
-                return 0.5;
-        }
-    }
-
-    private void generateLabyrinth(int startX, int startY) {
-        obstacleGrid = new boolean[GRID_COLS][GRID_ROWS];
-        // vertical pillars every 4 columns with periodic gaps
-        for (int x = 4; x < GRID_COLS - 4; x += 4) {
-            boolean gapToggle = (x / 4) % 2 == 0;
-            for (int y = 2; y < GRID_ROWS - 2; y++) {
-                boolean isGap = (y % 6 == 0) ^ gapToggle; // staggered gaps
-                if (!isGap) {
-                    obstacleGrid[x][y] = true;
-                }
-            }
-        }
-        // clear a 5x5 safe box around the starting snake position
-        for (int dx = -3; dx <= 3; dx++) {
-            for (int dy = -3; dy <= 3; dy++) {
-                int cx = startX + dx;
-                int cy = startY + dy;
-                if (cx >= 0 && cx < GRID_COLS && cy >= 0 && cy < GRID_ROWS) {
-                    obstacleGrid[cx][cy] = false;
-                }
-            }
+        @Override
+        public void onGameFinished(GameSnapshot snapshot) {
+            gameFinished(snapshot);
         }
     }
 
@@ -581,8 +358,20 @@ public final class GamePanel extends JPanel implements ActionListener {
             int key = e.getKeyCode();
             
             // Pause works for both keyboard and voice modes
+            boolean running = loop.getSnapshot().isRunning();
+            if (key == KeyEvent.VK_BACK_SPACE) {
+                // hold to step back through the last few seconds, also after a crash
+                loop.setRewinding(true);
+                return;
+            }
+            if (key == KeyEvent.VK_F3) {
+                overlay.setVisible(!overlay.isVisible());
+                repaint();
+                return;
+            }
             if (key == KeyEvent.VK_P && running) {
-                paused = !paused;
+                loop.setPaused(!loop.isPaused());
+                repaint();
                 return;
             }
             
@@ -590,19 +379,19 @@ public final class GamePanel extends JPanel implements ActionListener {
                 return;
             }
             
-            if (running && !paused) {
+            if (running && !loop.isPaused()) {
                 switch (key) {
                     case KeyEvent.VK_UP:
-                        if (direction != 'D') direction = 'U';
+                        loop.requestDirection(Direction.UP);
                         break;
                     case KeyEvent.VK_DOWN:
-                        if (direction != 'U') direction = 'D';
+                        loop.requestDirection(Direction.DOWN);
                         break;
                     case KeyEvent.VK_LEFT:
-                        if (direction != 'R') direction = 'L';
+                        loop.requestDirection(Direction.LEFT);
                         break;
                     case KeyEvent.VK_RIGHT:
-                        if (direction != 'L') direction = 'R';
+                        loop.requestDirection(Direction.RIGHT);
                         break;
                     default:
                         break;
@@ -613,6 +402,13 @@ public final class GamePanel extends JPanel implements ActionListener {
                 }
             }
         }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+            if (e.getKeyCode() == KeyEvent.VK_BACK_SPACE) {
+                loop.setRewinding(false);
+            }
+        }
     }
 }
 
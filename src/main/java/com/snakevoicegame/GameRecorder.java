@@ -0,0 +1,57 @@
+package com.snakevoicegame;
+
+import java.util.Arrays;
+
+/**
+ * Collects the direction changes of the current game. Storage grows geometrically, so recording
+ * a tick does not allocate in the steady state.
+ */
+public final class GameRecorder {
+
+    private long seed;
+    private GameMode gameMode = GameMode.CLASSIC;
+    private int cols;
+    private int rows;
+    private long[] ticks = new long[64];
+    private byte[] directions = new byte[64];
+    private int count;
+    private long endTick;
+
+    public void begin(SnakeEngine engine, long seed) {
+        this.seed = seed;
+        this.gameMode = engine.getGameMode();
+        this.cols = engine.getCols();
+        this.rows = engine.getRows();
+        this.count = 0;
+        this.endTick = engine.getTicks();
+    }
+
+    // Call after every step with the direction the engine was moving in before it
+    public void afterStep(SnakeEngine engine, Direction before) {
+        endTick = engine.getTicks();
+        Direction now = engine.getDirection();
+        if (now == before) {
+            return;
+        }
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            directions = Arrays.copyOf(directions, count * 2);
+        }
+        ticks[count] = endTick;
+        directions[count] = (byte) now.ordinal();
+        count++;
+    }
+
+    // Forget everything after the given tick, e.g. after rewinding
+    public void truncate(long tick) {
+        while (count > 0 && ticks[count - 1] > tick) {
+            count--;
+        }
+        endTick = Math.min(endTick, tick);
+    }
+
+    public GameRecording toRecording() {
+        return new GameRecording(seed, gameMode, cols, rows,
+                Arrays.copyOf(ticks, count), Arrays.copyOf(directions, count), endTick);
+    }
+}
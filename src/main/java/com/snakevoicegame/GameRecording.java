@@ -0,0 +1,157 @@
+package com.snakevoicegame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Everything needed to re-simulate a game: seed, mode, board size and the tick of every direction change.
+ *
+ * <p>Binary layout: magic {@code SNKR}, version byte, seed (8 bytes), mode ordinal byte, then varints for
+ * cols, rows, event count, one {@code (tickDelta << 2) | direction} per event and the final tick.
+ * A typical game is a few hundred bytes.
+ */
+public final class GameRecording {
+
+    private static final int MAGIC = 0x534E4B52; // "SNKR"
+    private static final int VERSION = 1;
+    private static final GameMode[] MODES = GameMode.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final long seed;
+    private final GameMode gameMode;
+    private final int cols;
+    private final int rows;
+    private final long[] eventTicks; // ascending, 1-based tick the change was applied on
+    private final byte[] eventDirections;
+    private final long endTick;
+
+    GameRecording(long seed, GameMode gameMode, int cols, int rows, long[] eventTicks, byte[] eventDirections, long endTick) {
+        this.seed = seed;
+        this.gameMode = gameMode;
+        this.cols = cols;
+        this.rows = rows;
+        this.eventTicks = eventTicks;
+        this.eventDirections = eventDirections;
+        this.endTick = endTick;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getEventCount() {
+        return eventTicks.length;
+    }
+
+    public long getEventTick(int index) {
+        return eventTicks[index];
+    }
+
+    public Direction getEventDirection(int index) {
+        return DIRECTIONS[eventDirections[index]];
+    }
+
+    public long getEndTick() {
+        return endTick;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        data.writeByte(gameMode.ordinal());
+        writeVarLong(data, cols);
+        writeVarLong(data, rows);
+        writeVarLong(data, eventTicks.length);
+        long previous = 0;
+        for (int i = 0; i < eventTicks.length; i++) {
+            writeVarLong(data, ((eventTicks[i] - previous) << 2) | eventDirections[i]);
+            previous = eventTicks[i];
+        }
+        writeVarLong(data, endTick);
+        data.flush();
+    }
+
+    public static GameRecording read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a Snake recording");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported recording version " + version);
+        }
+        long seed = data.readLong();
+        int mode = data.readUnsignedByte();
+        if (mode >= MODES.length) {
+            throw new IOException("Unknown game mode " + mode);
+        }
+        int cols = (int) readVarLong(data);
+        int rows = (int) readVarLong(data);
+        int count = (int) readVarLong(data);
+        long[] ticks = new long[count];
+        byte[] directions = new byte[count];
+        long tick = 0;
+        for (int i = 0; i < count; i++) {
+            long packed = readVarLong(data);
+            tick += packed >>> 2;
+            ticks[i] = tick;
+            directions[i] = (byte) (packed & 3);
+        }
+        long endTick = readVarLong(data);
+        return new GameRecording(seed, MODES[mode], cols, rows, ticks, directions, endTick);
+    }
+
+    public void save(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    public static GameRecording load(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,395 @@
+package com.snakevoicegame;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+
+/**
+ * Draws a {@link GameSnapshot} plus the HUD into any Graphics2D: the game panel, an offscreen image or a benchmark.
+ * Boards larger than the drawing area are shown through a camera that follows the head, and only the
+ * tiles inside it are drawn, so the cost of a frame depends on the screen size rather than the board size.
+ *
+ * <p>A frame allocates nothing in the steady state: colors, gradients and fonts are built once, snake and
+ * food cells are blitted from a {@link SpriteAtlas}, and HUD strings and their measurements are rebuilt
+ * only when the text or the size changes.
+ */
+public final class GameRenderer {
+
+    public static final int TILE_SIZE = 20;
+
+    static final int HEADER_HEIGHT = 55; // the HUD text lives in this band
+    private static final String INSTRUCTION_VOICE = "Say UP, DOWN, LEFT, or RIGHT to move (P to pause)";
+    private static final String INSTRUCTION_KEYBOARD = "Use ARROW KEYS to move (P to pause)";
+    private static final String PAUSED_TEXT = "PAUSED";
+    private static final String PAUSED_HINT = "Press P to resume";
+    private static final String GAME_OVER_TEXT = "Game Over!";
+    private static final String WIN_TEXT = "You Win!";
+    private static final String PROMPT_VOICE = "Say RESTART to play again";
+    private static final String PROMPT_KEYBOARD = "Press ENTER to restart";
+    private static final String NEW_HIGH_TEXT = "★ NEW HIGH SCORE! ★";
+
+    private static final Color INSTRUCTION_COLOR = new Color(220, 220, 255);
+    private static final Color SCORE_COLOR = new Color(255, 215, 0); // Gold
+    private static final Color MODE_COLOR = new Color(150, 200, 255);
+    private static final Color STATUS_BACKGROUND = new Color(0, 0, 0, 100);
+    private static final Color LISTENING_FILL = new Color(100, 255, 100);
+    private static final Color LISTENING_EDGE = new Color(50, 200, 50);
+    private static final Color IDLE_FILL = new Color(150, 150, 150);
+    private static final Color LISTENING_TEXT = new Color(200, 255, 200);
+    private static final Color IDLE_TEXT = new Color(200, 200, 200);
+    private static final Color PAUSED_OVERLAY = new Color(0, 0, 0, 150);
+    private static final Color PAUSED_SHADOW = new Color(0, 0, 0, 100);
+    private static final Color PAUSED_COLOR = new Color(255, 255, 100);
+    private static final Color GAME_OVER_SHADOW = new Color(0, 0, 0, 150);
+    private static final Color GAME_OVER_COLOR = new Color(255, 100, 100);
+    private static final Color PROMPT_COLOR = new Color(200, 200, 255);
+    private static final Color OVERLAY_TOP = new Color(0, 0, 0, 180);
+    private static final Color OVERLAY_BOTTOM = new Color(20, 20, 40, 200);
+    private static final Color HIGH_SCORE_LIGHT = new Color(255, 230, 100);
+    private static final Color HIGH_SCORE_DARK = new Color(255, 180, 0);
+
+    private static final GradientPaint HEADER_GRADIENT =
+            new GradientPaint(0, 0, new Color(30, 30, 40), 0, 50, new Color(20, 20, 30));
+
+    private volatile ControlMode controlMode;
+    private ControlMode layoutControlMode; // the instruction text was measured for
+    private final Font instructionFont;
+    private final Font hudFont;
+    private final Font statusFont;
+    private final Font titleFont;
+    private final Font messageFont;
+    private final Font highScoreFont;
+    private final ObstacleLayer obstacleLayer = new ObstacleLayer();
+    private final SpriteAtlas sprites = new SpriteAtlas();
+    private final Rectangle clipBounds = new Rectangle();
+    private int width = SnakeEngine.GRID_COLS * TILE_SIZE;
+    private int height = SnakeEngine.GRID_ROWS * TILE_SIZE;
+
+    // HUD state that is not part of the simulation; set on the EDT, read by whichever thread paints
+    private volatile boolean paused = false;
+    private volatile String voiceStatus;
+    private volatile boolean voiceListening = false;
+    private volatile boolean achievedNewHigh = false;
+    private volatile int finalHighScore = 0;
+    private volatile int finalLowScore = 0;
+
+    // Layout measured for layoutWidth x layoutHeight (-1 until the first frame)
+    private int layoutWidth = -1;
+    private int layoutHeight = -1;
+    private int instructionX;
+    private int pausedX;
+    private int pausedHintX;
+    private int gameOverX;
+    private int winX;
+    private int gameOverY;
+    private int promptX;
+    private int newHighX;
+    private GradientPaint overlayGradient;
+    private GradientPaint newHighGradient;
+
+    // HUD text, rebuilt only when the value behind it changes
+    private int scoreTextFor = -1;
+    private String scoreText;
+    private GameMode modeTextFor;
+    private String modeText;
+    private int modeTextX;
+    private int summaryScore = -1;
+    private int summaryHigh = -1;
+    private int summaryLow = -1;
+    private String summaryText;
+    private int summaryWidth;
+
+    public GameRenderer(ControlMode controlMode, Font baseFont) {
+        this.controlMode = controlMode == null ? ControlMode.KEYBOARD : controlMode;
+        this.instructionFont = baseFont.deriveFont(Font.BOLD, 14f);
+        this.hudFont = baseFont.deriveFont(Font.BOLD, 16f);
+        this.statusFont = baseFont.deriveFont(Font.PLAIN, 11f);
+        this.titleFont = baseFont.deriveFont(Font.BOLD, 56f);
+        this.messageFont = baseFont.deriveFont(Font.PLAIN, 18f);
+        this.highScoreFont = baseFont.deriveFont(Font.BOLD, 24f);
+    }
+
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public void setControlMode(ControlMode controlMode) {
+        this.controlMode = controlMode == null ? ControlMode.KEYBOARD : controlMode;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public void setVoiceStatus(String status, boolean listening) {
+        this.voiceStatus = status;
+        this.voiceListening = listening;
+    }
+
+    public void setFinalScores(boolean newHigh, int highScore, int lowScore) {
+        this.achievedNewHigh = newHigh;
+        this.finalHighScore = highScore;
+        this.finalLowScore = lowScore;
+    }
+
+    public void paint(Graphics2D g2, GameSnapshot snapshot, long nowNanos) {
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (width != layoutWidth || height != layoutHeight || controlMode != layoutControlMode) {
+            layout(g2);
+        }
+        sprites.validate(g2);
+        g2.setColor(Color.BLACK);
+        g2.fillRect(0, 0, width, height);
+
+        // Draw header background with gradient
+        g2.setPaint(HEADER_GRADIENT);
+        g2.fillRect(0, 0, width, HEADER_HEIGHT);
+
+        // Slide the head from its previous cell towards the current one between ticks
+        float headX = snapshot.getSegmentX(0);
+        float headY = snapshot.getSegmentY(0);
+        if (snapshot.isRunning()) {
+            float alpha = snapshot.interpolation(nowNanos);
+            headX = snapshot.getPreviousHeadX() + (headX - snapshot.getPreviousHeadX()) * alpha;
+            headY = snapshot.getPreviousHeadY() + (headY - snapshot.getPreviousHeadY()) * alpha;
+        }
+
+        // Camera over the board and the range of tiles it shows
+        int cameraX = cameraOffset(headX, snapshot.getCols() * TILE_SIZE, width);
+        int cameraY = cameraOffset(headY, snapshot.getRows() * TILE_SIZE, height);
+        int minX = cameraX / TILE_SIZE;
+        int minY = cameraY / TILE_SIZE;
+        int maxX = Math.min(snapshot.getCols() - 1, (cameraX + width) / TILE_SIZE);
+        int maxY = Math.min(snapshot.getRows() - 1, (cameraY + height) / TILE_SIZE);
+        // A partial repaint only needs the tiles under its clip
+        clipBounds.setBounds(0, 0, width, height);
+        Rectangle clip = g2.getClipBounds(clipBounds);
+        // (one pixel wider, for antialiased edges that bleed out of their tile)
+        minX = Math.max(minX, (clip.x + cameraX - 1) / TILE_SIZE);
+        minY = Math.max(minY, (clip.y + cameraY - 1) / TILE_SIZE);
+        maxX = Math.min(maxX, (clip.x + clip.width + cameraX + 1) / TILE_SIZE);
+        maxY = Math.min(maxY, (clip.y + clip.height + cameraY + 1) / TILE_SIZE);
+        g2.translate(-cameraX, -cameraY);
+
+        // Draw food (regular or gold bolt) from the sprite atlas
+        if (snapshot.hasFood() && isVisible(snapshot.getFoodX(), snapshot.getFoodY(), minX, minY, maxX, maxY)) {
+            sprites.draw(g2, snapshot.isBoltFood() ? SpriteAtlas.BOLT : SpriteAtlas.FOOD,
+                    snapshot.getFoodX() * TILE_SIZE, snapshot.getFoodY() * TILE_SIZE);
+        }
+
+        // Draw obstacles (labyrinth) from the pre-rendered wall layer
+        if (snapshot.hasObstacles()) {
+            obstacleLayer.draw(g2, snapshot, minX, minY, maxX, maxY);
+        }
+
+        // Draw snake, one sprite per segment; the head faces its direction
+        int headSprite = SpriteAtlas.head(snapshot.getDirection());
+        for (int i = 0; i < snapshot.getLength(); ) {
+            int segX = snapshot.getSegmentX(i);
+            int segY = snapshot.getSegmentY(i);
+            int offScreen = i == 0 ? 0 : tilesOutside(segX, segY, minX, minY, maxX, maxY);
+            if (offScreen > 0) {
+                // consecutive segments are neighbours, so the next offScreen - 1 are off screen as well
+                i += offScreen;
+                continue;
+            }
+            if (i == 0) {
+                sprites.draw(g2, headSprite, Math.round(headX * TILE_SIZE), Math.round(headY * TILE_SIZE));
+            } else {
+                sprites.draw(g2, SpriteAtlas.BODY, segX * TILE_SIZE, segY * TILE_SIZE);
+            }
+            i++;
+        }
+        g2.translate(cameraX, cameraY);
+
+        // HUD text goes on top of the board, which may scroll underneath it
+        // Draw instruction at top-center
+        g2.setColor(INSTRUCTION_COLOR);
+        g2.setFont(instructionFont);
+        g2.drawString(controlMode == ControlMode.VOICE ? INSTRUCTION_VOICE : INSTRUCTION_KEYBOARD, instructionX, 18);
+
+        // Draw score at top-left with better styling
+        if (snapshot.getScore() != scoreTextFor) {
+            scoreTextFor = snapshot.getScore();
+            scoreText = "Score: " + scoreTextFor;
+        }
+        g2.setFont(hudFont);
+        g2.setColor(SCORE_COLOR);
+        g2.drawString(scoreText, 10, 40);
+
+        // Draw mode at top-right
+        if (snapshot.getGameMode() != modeTextFor) {
+            modeTextFor = snapshot.getGameMode();
+            modeText = "Mode: " + modeTextFor.name();
+            modeTextX = -1;
+        }
+        if (modeTextX < 0) {
+            modeTextX = width - g2.getFontMetrics(hudFont).stringWidth(modeText) - 10;
+        }
+        g2.setColor(MODE_COLOR);
+        g2.drawString(modeText, modeTextX, 40);
+
+        // Draw voice status indicator if using voice control
+        if (controlMode == ControlMode.VOICE && voiceStatus != null) {
+            drawVoiceStatus(g2);
+        }
+
+        if (!snapshot.isRunning()) {
+            drawGameOver(g2, snapshot);
+        } else if (paused) {
+            drawPaused(g2);
+        }
+    }
+
+    // Whether the whole board fits, so tile (x, y) is always drawn at (x, y) * TILE_SIZE
+    public boolean isCameraFixed(GameSnapshot snapshot) {
+        return snapshot.getCols() * TILE_SIZE <= width && snapshot.getRows() * TILE_SIZE <= height;
+    }
+
+    // Positions and gradients that only depend on the size; measured once per size
+    private void layout(Graphics2D g2) {
+        layoutWidth = width;
+        layoutHeight = height;
+        layoutControlMode = controlMode;
+        String instruction = controlMode == ControlMode.VOICE ? INSTRUCTION_VOICE : INSTRUCTION_KEYBOARD;
+        instructionX = (width - g2.getFontMetrics(instructionFont).stringWidth(instruction)) / 2;
+        modeTextX = -1;
+        summaryText = null;
+
+        FontMetrics title = g2.getFontMetrics(titleFont);
+        FontMetrics message = g2.getFontMetrics(messageFont);
+        pausedX = (width - title.stringWidth(PAUSED_TEXT)) / 2;
+        pausedHintX = (width - message.stringWidth(PAUSED_HINT)) / 2;
+        gameOverX = (width - title.stringWidth(GAME_OVER_TEXT)) / 2;
+        winX = (width - title.stringWidth(WIN_TEXT)) / 2;
+        gameOverY = height / 2 - title.getHeight();
+        String prompt = controlMode == ControlMode.VOICE ? PROMPT_VOICE : PROMPT_KEYBOARD;
+        promptX = (width - message.stringWidth(prompt)) / 2;
+
+        overlayGradient = new GradientPaint(0, 0, OVERLAY_TOP, 0, height, OVERLAY_BOTTOM);
+        int newHighWidth = g2.getFontMetrics(highScoreFont).stringWidth(NEW_HIGH_TEXT);
+        newHighX = (width - newHighWidth) / 2;
+        int y2 = gameOverY + 50;
+        newHighGradient = new GradientPaint(newHighX, y2 + 60, HIGH_SCORE_LIGHT,
+                newHighX + newHighWidth, y2 + 80, HIGH_SCORE_DARK);
+    }
+
+    // Left/top pixel of the view: centred on the head, clamped to the board, 0 when the board fits
+    private static int cameraOffset(float headTile, int boardPixels, int viewPixels) {
+        if (boardPixels <= viewPixels) {
+            return 0;
+        }
+        int centred = Math.round(headTile * TILE_SIZE) + TILE_SIZE / 2 - viewPixels / 2;
+        return Math.max(0, Math.min(boardPixels - viewPixels, centred));
+    }
+
+    private static boolean isVisible(int x, int y, int minX, int minY, int maxX, int maxY) {
+        return tilesOutside(x, y, minX, minY, maxX, maxY) == 0;
+    }
+
+    // Chebyshev distance from the tile to the visible range, 0 when inside
+    private static int tilesOutside(int x, int y, int minX, int minY, int maxX, int maxY) {
+        int dx = x < minX ? minX - x : (x > maxX ? x - maxX : 0);
+        int dy = y < minY ? minY - y : (y > maxY ? y - maxY : 0);
+        return Math.max(dx, dy);
+    }
+
+    private void drawVoiceStatus(Graphics2D g2) {
+        String status = voiceStatus;
+        boolean isListening = voiceListening;
+
+        // Draw status indicator in top-right corner
+        int x = width - 150;
+        int y = 15;
+
+        // Draw background
+        g2.setColor(STATUS_BACKGROUND);
+        g2.fillRoundRect(x - 5, y - 12, 145, 22, 8, 8);
+
+        // Draw listening indicator
+        if (isListening) {
+            g2.setColor(LISTENING_FILL);
+            g2.fillOval(x, y - 6, 12, 12);
+            g2.setColor(LISTENING_EDGE);
+            g2.drawOval(x, y - 6, 12, 12);
+        } else {
+            g2.setColor(IDLE_FILL);
+            g2.fillOval(x, y - 6, 12, 12);
+        }
+
+        // Draw status text
+        g2.setColor(isListening ? LISTENING_TEXT : IDLE_TEXT);
+        g2.setFont(statusFont);
+        g2.drawString(status, x + 18, y + 4);
+    }
+
+    private void drawPaused(Graphics2D g2) {
+        g2.setColor(PAUSED_OVERLAY);
+        g2.fillRect(0, 0, width, height);
+
+        g2.setFont(titleFont);
+        int y = height / 2;
+
+        // Draw shadow
+        g2.setColor(PAUSED_SHADOW);
+        g2.drawString(PAUSED_TEXT, pausedX + 3, y + 3);
+
+        // Draw text
+        g2.setColor(PAUSED_COLOR);
+        g2.drawString(PAUSED_TEXT, pausedX, y);
+
+        g2.setFont(messageFont);
+        g2.setColor(Color.WHITE);
+        g2.drawString(PAUSED_HINT, pausedHintX, y + 40);
+    }
+
+    private void drawGameOver(Graphics2D g2, GameSnapshot snapshot) {
+        boolean won = snapshot.getOutcome() == GameOutcome.BOARD_FULL;
+
+        // Draw semi-transparent overlay with gradient
+        g2.setPaint(overlayGradient);
+        g2.fillRect(0, 0, width, height);
+
+        // Draw "Game Over" with shadow
+        g2.setFont(titleFont);
+        String over = won ? WIN_TEXT : GAME_OVER_TEXT;
+        int x = won ? winX : gameOverX;
+        int y = gameOverY;
+
+        g2.setColor(GAME_OVER_SHADOW);
+        g2.drawString(over, x + 4, y + 4);
+        g2.setColor(GAME_OVER_COLOR);
+        g2.drawString(over, x, y);
+
+        g2.setFont(messageFont);
+        int y2 = y + 50;
+        g2.setColor(PROMPT_COLOR);
+        g2.drawString(controlMode == ControlMode.VOICE ? PROMPT_VOICE : PROMPT_KEYBOARD, promptX, y2);
+
+        // Score summary and new high indicator
+        int high = finalHighScore;
+        int low = finalLowScore;
+        if (summaryText == null || snapshot.getScore() != summaryScore || high != summaryHigh || low != summaryLow) {
+            summaryScore = snapshot.getScore();
+            summaryHigh = high;
+            summaryLow = low;
+            summaryText = "Score: " + summaryScore + "   High: " + high + "   Low: " + (low == 0 ? "-" : Integer.toString(low));
+            summaryWidth = g2.getFontMetrics(messageFont).stringWidth(summaryText);
+        }
+        g2.setColor(Color.WHITE);
+        g2.drawString(summaryText, (width - summaryWidth) / 2, y2 + 35);
+
+        if (achievedNewHigh) {
+            // Pulsing effect with gradient
+            g2.setFont(highScoreFont);
+            g2.setPaint(newHighGradient);
+            g2.drawString(NEW_HIGH_TEXT, newHighX, y2 + 70);
+        }
+    }
+}
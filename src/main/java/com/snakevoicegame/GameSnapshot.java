@@ -0,0 +1,150 @@
+package com.snakevoicegame;
+
+/**
+ * Immutable view of the engine state after one tick, published by {@link GameLoop} for rendering.
+ */
+public final class GameSnapshot {
+
+    private final int cols;
+    private final int rows;
+    private final GameMode gameMode;
+    private final int[] bodyCells; // head first
+    private final int previousHeadCell;
+    private final int[] dirtyCells; // changed by the tick that produced this snapshot
+    private final Direction direction;
+    private final int foodCell; // -1 when there is no food
+    private final boolean boltFood;
+    private final long[] obstacles; // shared per game, never modified after publication
+    private final int score;
+    private final GameOutcome outcome;
+    private final long tick;
+    private final long publishedNanos;
+    private final long tickNanos;
+
+    GameSnapshot(SnakeEngine engine, int previousHeadCell, long[] obstacles, long publishedNanos) {
+        this.cols = engine.getCols();
+        this.rows = engine.getRows();
+        this.gameMode = engine.getGameMode();
+        this.bodyCells = new int[engine.getLength()];
+        for (int i = 0; i < bodyCells.length; i++) {
+            bodyCells[i] = engine.getSegmentCell(i);
+        }
+        this.previousHeadCell = previousHeadCell;
+        this.dirtyCells = new int[engine.getDirtyCellCount()];
+        for (int i = 0; i < dirtyCells.length; i++) {
+            dirtyCells[i] = engine.getDirtyCell(i);
+        }
+        this.direction = engine.getDirection();
+        this.foodCell = engine.hasFood() ? engine.getFoodY() * cols + engine.getFoodX() : -1;
+        this.boltFood = engine.isBoltFood();
+        this.obstacles = obstacles;
+        this.score = engine.getScore();
+        this.outcome = engine.getOutcome();
+        this.tick = engine.getTicks();
+        this.publishedNanos = publishedNanos;
+        this.tickNanos = engine.getTickDelay() * 1_000_000L;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    public int getLength() {
+        return bodyCells.length;
+    }
+
+    public int getSegmentX(int index) {
+        return bodyCells[index] % cols;
+    }
+
+    public int getSegmentY(int index) {
+        return bodyCells[index] / cols;
+    }
+
+    public int getPreviousHeadX() {
+        return previousHeadCell % cols;
+    }
+
+    public int getPreviousHeadY() {
+        return previousHeadCell / cols;
+    }
+
+    public int getDirtyCellCount() {
+        return dirtyCells.length;
+    }
+
+    public int getDirtyX(int index) {
+        return dirtyCells[index] % cols;
+    }
+
+    public int getDirtyY(int index) {
+        return dirtyCells[index] / cols;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean hasFood() {
+        return foodCell >= 0;
+    }
+
+    public int getFoodX() {
+        return foodCell % cols;
+    }
+
+    public int getFoodY() {
+        return foodCell / cols;
+    }
+
+    public boolean isBoltFood() {
+        return boltFood;
+    }
+
+    public boolean hasObstacles() {
+        return obstacles != null;
+    }
+
+    public boolean isObstacle(int x, int y) {
+        int cell = y * cols + x;
+        return obstacles != null && (obstacles[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    // The shared obstacle bitset itself; its identity changes with every new game
+    long[] getObstacleBits() {
+        return obstacles;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isRunning() {
+        return outcome == GameOutcome.RUNNING;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    // 0 right after the tick, 1 once the next tick is due
+    public float interpolation(long nowNanos) {
+        if (tickNanos <= 0) {
+            return 1f;
+        }
+        float alpha = (float) (nowNanos - publishedNanos) / tickNanos;
+        return alpha < 0f ? 0f : Math.min(alpha, 1f);
+    }
+}
@@ -6,7 +6,9 @@ import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -15,9 +17,18 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Locale;
 
 public final class MenuPanel extends JPanel {
 
+    private static final int STATUS_POLL_MS = 200;
+
+    private final JLabel voiceStatus = new JLabel(" ", SwingConstants.CENTER);
+    private final JProgressBar voiceProgress = new JProgressBar();
+    private final Timer statusTimer = new Timer(STATUS_POLL_MS, e -> updateVoiceStatus());
+
     public MenuPanel(ActionListener onStart, ActionListener onSettings) {
         setLayout(new BorderLayout());
         setBackground(new Color(25, 25, 35));
@@ -57,13 +68,74 @@ public final class MenuPanel extends JPanel {
 
         // Bottom hint panel
         JPanel bottomPanel = new JPanel();
+        bottomPanel.setLayout(new BoxLayout(bottomPanel, BoxLayout.Y_AXIS));
         bottomPanel.setBackground(new Color(25, 25, 35));
         bottomPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 30, 20));
         JLabel hint = new JLabel("Choose a control mode in Settings (Keyboard or Voice)", SwingConstants.CENTER);
         hint.setFont(new Font("SansSerif", Font.PLAIN, 14));
         hint.setForeground(new Color(180, 180, 200));
+        hint.setAlignmentX(CENTER_ALIGNMENT);
         bottomPanel.add(hint);
+
+        // Voice model loading in the background
+        voiceStatus.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        voiceStatus.setForeground(new Color(150, 150, 170));
+        voiceStatus.setAlignmentX(CENTER_ALIGNMENT);
+        voiceProgress.setIndeterminate(true);
+        voiceProgress.setMaximumSize(new Dimension(250, 6));
+        voiceProgress.setPreferredSize(new Dimension(250, 6));
+        voiceProgress.setBorderPainted(false);
+        voiceProgress.setAlignmentX(CENTER_ALIGNMENT);
+        voiceProgress.setVisible(false);
+        bottomPanel.add(Box.createRigidArea(new Dimension(0, 8)));
+        bottomPanel.add(voiceStatus);
+        bottomPanel.add(Box.createRigidArea(new Dimension(0, 4)));
+        bottomPanel.add(voiceProgress);
         add(bottomPanel, BorderLayout.SOUTH);
+
+        // Only poll while the menu card is shown
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                updateVoiceStatus();
+                statusTimer.start();
+            }
+
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                statusTimer.stop();
+            }
+        });
+        statusTimer.start();
+        updateVoiceStatus();
+    }
+
+    private void updateVoiceStatus() {
+        String text;
+        switch (VoskModelRegistry.getState()) {
+            case LOADING:
+                text = String.format(Locale.ROOT, "Loading voice model... %.1f s",
+                        VoskModelRegistry.getLoadNanos() / 1e9);
+                break;
+            case READY:
+                text = String.format(Locale.ROOT, "Voice model ready (loaded in %.1f s)",
+                        VoskModelRegistry.getLoadNanos() / 1e9);
+                break;
+            case FAILED:
+                text = "Voice unavailable: " + VoskModelRegistry.getFailure();
+                break;
+            case IDLE:
+            default:
+                text = " ";
+                break;
+        }
+        if (!text.equals(voiceStatus.getText())) {
+            voiceStatus.setText(text);
+        }
+        boolean loading = VoskModelRegistry.getState() == VoskModelRegistry.State.LOADING;
+        if (voiceProgress.isVisible() != loading) {
+            voiceProgress.setVisible(loading);
+        }
     }
 
     private JButton createStyledButton(String text) {
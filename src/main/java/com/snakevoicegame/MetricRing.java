@@ -0,0 +1,45 @@
+package com.snakevoicegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free ring of the most recent samples of one measurement. Recording is a counter
+ * increment and a release store, so it is safe from any thread and never blocks or allocates; a reader
+ * copies out the newest samples whenever it likes. A sample being overwritten while it is copied may
+ * show up as either its old or new value, which is fine for statistics.
+ */
+final class MetricRing {
+
+    private final AtomicLongArray samples;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+
+    MetricRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void record(long value) {
+        long index = written.getAndIncrement();
+        samples.lazySet((int) (index & mask), value);
+    }
+
+    // Samples recorded since creation, including overwritten ones
+    long count() {
+        return written.get();
+    }
+
+    // Copies up to out.length of the newest samples into out and returns how many were copied
+    int copyNewest(long[] out) {
+        long end = written.get();
+        int n = (int) Math.min(Math.min(end, mask + 1), out.length);
+        for (int i = 0; i < n; i++) {
+            out[i] = samples.get((int) ((end - n + i) & mask));
+        }
+        return n;
+    }
+}
@@ -0,0 +1,166 @@
+package com.snakevoicegame;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+/**
+ * Labyrinth walls pre-rendered into cached images, since they never change during a game.
+ *
+ * <p>The board is split into chunks of {@link #CHUNK_TILES} x {@link #CHUNK_TILES} tiles, so the default
+ * board is one image and one {@code drawImage}, while a 2000x2000 board only keeps the few chunks
+ * around the camera. Chunks are VolatileImages where the device supports them and are re-rendered
+ * when their contents are lost; otherwise a compatible BufferedImage is used.
+ */
+final class ObstacleLayer {
+
+    static final int CHUNK_TILES = 32;
+    private static final int CACHED_CHUNKS = 16; // enough for a full-HD view
+    private static final int TILE_SIZE = GameRenderer.TILE_SIZE;
+    private static final int CHUNK_PIXELS = CHUNK_TILES * TILE_SIZE;
+
+    private final int[] chunkIds = new int[CACHED_CHUNKS];
+    private final Image[] images = new Image[CACHED_CHUNKS];
+    private final boolean[] empty = new boolean[CACHED_CHUNKS];
+    private final long[] lastUsed = new long[CACHED_CHUNKS];
+    private long[] obstacles; // identity of the game the chunks were rendered for
+    private long frame;
+
+    ObstacleLayer() {
+        Arrays.fill(chunkIds, -1);
+    }
+
+    // Draws the walls of the given tile range; g2 must be in board coordinates
+    void draw(Graphics2D g2, GameSnapshot snapshot, int minX, int minY, int maxX, int maxY) {
+        long[] current = snapshot.getObstacleBits();
+        if (current != obstacles) {
+            obstacles = current; // new game, new walls
+            Arrays.fill(chunkIds, -1);
+        }
+        frame++;
+        int chunkCols = (snapshot.getCols() + CHUNK_TILES - 1) / CHUNK_TILES;
+        GraphicsConfiguration gc = g2.getDeviceConfiguration();
+        for (int cy = minY / CHUNK_TILES; cy <= maxY / CHUNK_TILES; cy++) {
+            for (int cx = minX / CHUNK_TILES; cx <= maxX / CHUNK_TILES; cx++) {
+                drawChunk(g2, gc, snapshot, cy * chunkCols + cx, cx, cy);
+            }
+        }
+    }
+
+    private void drawChunk(Graphics2D g2, GraphicsConfiguration gc, GameSnapshot snapshot, int id, int cx, int cy) {
+        int slot = slotFor(id);
+        lastUsed[slot] = frame;
+        if (chunkIds[slot] != id) {
+            chunkIds[slot] = id;
+            empty[slot] = !hasWalls(snapshot, cx, cy);
+            if (!empty[slot]) {
+                images[slot] = ensureImage(images[slot], gc);
+                render(images[slot], snapshot, cx, cy);
+            }
+        }
+        if (empty[slot]) {
+            return;
+        }
+
+        int px = cx * CHUNK_PIXELS;
+        int py = cy * CHUNK_PIXELS;
+        if (!(images[slot] instanceof VolatileImage)) {
+            g2.drawImage(images[slot], px, py, null);
+            return;
+        }
+        VolatileImage image = (VolatileImage) images[slot];
+        do {
+            int state = image.validate(gc);
+            if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                image.flush();
+                image = (VolatileImage) ensureImage(null, gc);
+                images[slot] = image;
+                state = VolatileImage.IMAGE_RESTORED;
+            }
+            if (state == VolatileImage.IMAGE_RESTORED) {
+                render(image, snapshot, cx, cy);
+            }
+            g2.drawImage(image, px, py, null);
+        } while (image.contentsLost());
+    }
+
+    // Cached slot of the chunk, or the least recently used one
+    private int slotFor(int id) {
+        int oldest = 0;
+        for (int i = 0; i < CACHED_CHUNKS; i++) {
+            if (chunkIds[i] == id) {
+                return i;
+            }
+            if (lastUsed[i] < lastUsed[oldest]) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+
+    private static Image ensureImage(Image existing, GraphicsConfiguration gc) {
+        if (existing != null) {
+            return existing;
+        }
+        if (!GraphicsEnvironment.isHeadless()) {
+            try {
+                return gc.createCompatibleVolatileImage(CHUNK_PIXELS, CHUNK_PIXELS, Transparency.TRANSLUCENT);
+            } catch (RuntimeException e) {
+                System.err.println("ObstacleLayer: Falling back to a buffered image: " + e.getMessage());
+            }
+        }
+        return gc != null
+                ? gc.createCompatibleImage(CHUNK_PIXELS, CHUNK_PIXELS, Transparency.TRANSLUCENT)
+                : new BufferedImage(CHUNK_PIXELS, CHUNK_PIXELS, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private static boolean hasWalls(GameSnapshot snapshot, int cx, int cy) {
+        int endX = Math.min(snapshot.getCols(), (cx + 1) * CHUNK_TILES);
+        int endY = Math.min(snapshot.getRows(), (cy + 1) * CHUNK_TILES);
+        for (int y = cy * CHUNK_TILES; y < endY; y++) {
+            for (int x = cx * CHUNK_TILES; x < endX; x++) {
+                if (snapshot.isObstacle(x, y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void render(Image image, GameSnapshot snapshot, int cx, int cy) {
+        Graphics2D g2 = (Graphics2D) image.getGraphics();
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(0, 0, CHUNK_PIXELS, CHUNK_PIXELS);
+        g2.setComposite(AlphaComposite.SrcOver);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Wall tiles with 3D effect
+        Color light = new Color(100, 100, 110);
+        Color dark = new Color(60, 60, 70);
+        Color edge = new Color(40, 40, 50);
+        int endX = Math.min(snapshot.getCols(), (cx + 1) * CHUNK_TILES);
+        int endY = Math.min(snapshot.getRows(), (cy + 1) * CHUNK_TILES);
+        for (int y = cy * CHUNK_TILES; y < endY; y++) {
+            for (int x = cx * CHUNK_TILES; x < endX; x++) {
+                if (snapshot.isObstacle(x, y)) {
+                    int ox = (x - cx * CHUNK_TILES) * TILE_SIZE;
+                    int oy = (y - cy * CHUNK_TILES) * TILE_SIZE;
+                    g2.setPaint(new GradientPaint(ox, oy, light, ox + TILE_SIZE, oy + TILE_SIZE, dark));
+                    g2.fillRect(ox, oy, TILE_SIZE, TILE_SIZE);
+                    g2.setColor(edge);
+                    g2.drawRect(ox, oy, TILE_SIZE - 1, TILE_SIZE - 1);
+                }
+            }
+        }
+        g2.dispose();
+    }
+}
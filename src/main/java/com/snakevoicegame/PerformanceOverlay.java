@@ -0,0 +1,252 @@
+package com.snakevoicegame;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Live performance numbers drawn over the game (toggled with F3): how far each tick interval is off
+ * its target delay, paint time percentiles, voice command latency, allocation rate and GC pauses.
+ *
+ * <p>Samples go into {@link MetricRing}s from whichever thread measures them, and only while the
+ * overlay is shown. The text is recomputed at most every {@link #REFRESH_NANOS} by {@link #update}, so
+ * the overlay itself costs next to nothing per frame and a partial repaint always draws the same text.
+ */
+final class PerformanceOverlay implements GameLoop.TickMonitor {
+
+    private static final int SAMPLES = 256;
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final int BUCKETS = 9; // tick deviation histogram: -8..+8 ms in 2 ms steps, clamped
+    private static final long BUCKET_NANOS = 2_000_000L;
+    private static final int LINES = 6;
+    private static final int LINE_HEIGHT = 14;
+    private static final int HISTOGRAM_HEIGHT = 30;
+    private static final int PADDING = 6;
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final Color TEXT = new Color(200, 255, 200);
+    private static final Color BAR = new Color(100, 200, 100);
+    private static final Color ON_TIME_BAR = new Color(140, 255, 140);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+    private final MetricRing tickActual = new MetricRing(SAMPLES);
+    private final MetricRing tickDeviation = new MetricRing(SAMPLES);
+    private final MetricRing paintTimes = new MetricRing(SAMPLES);
+    private final MetricRing voiceLatency = new MetricRing(SAMPLES);
+    private final MetricRing gcPauses = new MetricRing(SAMPLES);
+    private final NotificationListener gcListener = this::onGcNotification;
+
+    private volatile boolean visible = false;
+    private volatile long tickTarget;
+    private volatile boolean restarted; // shown again; the painting thread resets its sampling state
+
+    // Only touched by the painting thread
+    private final Rectangle bounds = new Rectangle(PADDING, GameRenderer.HEADER_HEIGHT + PADDING, 340,
+            LINES * LINE_HEIGHT + HISTOGRAM_HEIGHT + 3 * PADDING);
+    private final long[] scratch = new long[SAMPLES];
+    private final String[] lines = new String[LINES];
+    private final int[] histogram = new int[BUCKETS];
+    private long lastUpdate;
+    private long lastAllocatedBytes = -1;
+    private long lastAllocationSample;
+    private String allocationText = "n/a";
+
+    boolean isVisible() {
+        return visible;
+    }
+
+    void setVisible(boolean visible) {
+        if (this.visible == visible) {
+            return;
+        }
+        this.visible = visible;
+        if (visible) {
+            restarted = true;
+            listenForGc(true);
+        } else {
+            listenForGc(false);
+        }
+    }
+
+    // Where the overlay is drawn, in panel coordinates
+    Rectangle getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public void onTickTiming(long targetNanos, long actualNanos) {
+        if (!visible) {
+            return;
+        }
+        tickTarget = targetNanos;
+        tickActual.record(actualNanos);
+        tickDeviation.record(actualNanos - targetNanos);
+    }
+
+    void recordPaint(long nanos) {
+        if (visible) {
+            paintTimes.record(nanos);
+        }
+    }
+
+    // From the audio chunk that completed a command to the tick that applied it
+    void recordVoiceLatency(long nanos) {
+        if (visible) {
+            voiceLatency.record(nanos);
+        }
+    }
+
+    // Recomputes the text when it is due; returns whether it changed and the overlay should be repainted
+    boolean update(long nowNanos) {
+        if (!visible) {
+            return false;
+        }
+        if (restarted) {
+            restarted = false;
+            lastAllocatedBytes = -1; // the last sample is from before the overlay was hidden
+        } else if (nowNanos - lastUpdate < REFRESH_NANOS) {
+            return false;
+        }
+        lastUpdate = nowNanos;
+        sampleAllocationRate(nowNanos);
+
+        int n = tickActual.copyNewest(scratch);
+        Arrays.sort(scratch, 0, n);
+        lines[0] = String.format(Locale.ROOT, "tick   target %5.1f  p50 %5.1f  max %5.1f ms",
+                millis(tickTarget), millis(percentile(n, 0.5)), millis(percentile(n, 1)));
+        n = tickDeviation.copyNewest(scratch);
+        Arrays.fill(histogram, 0);
+        for (int i = 0; i < n; i++) {
+            long bucket = Math.floorDiv(scratch[i] + BUCKET_NANOS / 2, BUCKET_NANOS) + BUCKETS / 2;
+            histogram[(int) Math.max(0, Math.min(BUCKETS - 1, bucket))]++;
+        }
+        Arrays.sort(scratch, 0, n);
+        lines[1] = String.format(Locale.ROOT, "jitter p99 %+5.1f ms  over %d ticks",
+                millis(percentile(n, 0.99)), n);
+        lines[2] = percentiles("paint", paintTimes);
+        lines[3] = percentiles("voice", voiceLatency);
+        n = gcPauses.copyNewest(scratch);
+        Arrays.sort(scratch, 0, n);
+        lines[4] = String.format(Locale.ROOT, "gc     %d pauses  p50 %d  max %d ms",
+                gcPauses.count(), percentile(n, 0.5), percentile(n, 1));
+        lines[5] = "alloc  " + allocationText;
+        return true;
+    }
+
+    void paint(Graphics2D g2) {
+        if (!visible || lines[0] == null) {
+            return;
+        }
+        g2.setColor(BACKGROUND);
+        g2.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        g2.setFont(FONT);
+        g2.setColor(TEXT);
+        int x = bounds.x + PADDING;
+        int y = bounds.y + PADDING;
+        for (String line : lines) {
+            y += LINE_HEIGHT;
+            g2.drawString(line, x, y - 3);
+        }
+
+        // Tick deviation histogram, on-time bucket in the middle
+        int max = 1;
+        for (int count : histogram) {
+            max = Math.max(max, count);
+        }
+        int barWidth = (bounds.width - 2 * PADDING) / BUCKETS;
+        int base = bounds.y + bounds.height - PADDING;
+        for (int i = 0; i < BUCKETS; i++) {
+            int h = histogram[i] * HISTOGRAM_HEIGHT / max;
+            g2.setColor(i == BUCKETS / 2 ? ON_TIME_BAR : BAR);
+            g2.fillRect(x + i * barWidth, base - h, barWidth - 2, h);
+        }
+    }
+
+    private String percentiles(String label, MetricRing ring) {
+        int n = ring.copyNewest(scratch);
+        if (n == 0) {
+            return String.format(Locale.ROOT, "%-6s -", label);
+        }
+        Arrays.sort(scratch, 0, n);
+        return String.format(Locale.ROOT, "%-6s p50 %5.1f  p95 %5.1f  p99 %5.1f ms", label,
+                millis(percentile(n, 0.5)), millis(percentile(n, 0.95)), millis(percentile(n, 0.99)));
+    }
+
+    // Nearest-rank percentile of the first n sorted scratch values
+    private long percentile(int n, double p) {
+        if (n == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * n) - 1;
+        return scratch[Math.max(0, Math.min(n - 1, rank))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // Bytes allocated by all live threads since the last sample; HotSpot only
+    private void sampleAllocationRate(long nowNanos) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        long allocated = 0;
+        for (long bytes : hotspot.getThreadAllocatedBytes(hotspot.getAllThreadIds())) {
+            allocated += Math.max(0, bytes); // -1 for threads that ended meanwhile
+        }
+        if (lastAllocatedBytes >= 0 && allocated >= lastAllocatedBytes) {
+            // threads that ended since the last sample take their bytes with them, so skip those drops
+            double seconds = (nowNanos - lastAllocationSample) / 1e9;
+            allocationText = String.format(Locale.ROOT, "%.1f MB/s",
+                    (allocated - lastAllocatedBytes) / seconds / (1 << 20));
+        }
+        lastAllocatedBytes = allocated;
+        lastAllocationSample = nowNanos;
+    }
+
+    private void listenForGc(boolean listen) {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter)) {
+                continue;
+            }
+            NotificationEmitter emitter = (NotificationEmitter) gc;
+            try {
+                if (listen) {
+                    emitter.addNotificationListener(gcListener, null, null);
+                } else {
+                    emitter.removeNotificationListener(gcListener);
+                }
+            } catch (Exception e) {
+                System.err.println("PerformanceOverlay: Cannot watch " + gc.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void onGcNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcAction().contains("concurrent")) {
+            return; // background cycle, not a pause
+        }
+        gcPauses.record(info.getGcInfo().getDuration()); // milliseconds
+    }
+}
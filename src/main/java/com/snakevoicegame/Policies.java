@@ -0,0 +1,111 @@
+package com.snakevoicegame;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+public final class Policies {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private Policies() {
+    }
+
+    public static Policy create(String name, long seed) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "random":
+                return new RandomPolicy(seed);
+            case "greedy":
+                return new GreedyPolicy();
+            case "hamiltonian":
+                return new HamiltonianPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + name + " (expected random, greedy or hamiltonian)");
+        }
+    }
+
+    // In bounds, not reversing and not into an occupied cell
+    static boolean isSafe(SnakeEngine engine, Direction d) {
+        if (d == engine.getDirection().opposite()) {
+            return false;
+        }
+        int x = engine.getSegmentX(0) + d.dx();
+        int y = engine.getSegmentY(0) + d.dy();
+        return x >= 0 && x < engine.getCols() && y >= 0 && y < engine.getRows() && !engine.isOccupied(x, y);
+    }
+
+    // Picks uniformly among the safe moves
+    static final class RandomPolicy implements Policy {
+        private final SplittableRandom random;
+
+        RandomPolicy(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public Direction choose(SnakeEngine engine) {
+            Direction chosen = null;
+            int safe = 0;
+            for (Direction d : DIRECTIONS) {
+                if (isSafe(engine, d) && random.nextInt(++safe) == 0) {
+                    chosen = d; // reservoir sampling over the safe moves
+                }
+            }
+            return chosen;
+        }
+    }
+
+    // Safe move that gets closest to the food
+    static final class GreedyPolicy implements Policy {
+        @Override
+        public Direction choose(SnakeEngine engine) {
+            if (!engine.hasFood()) {
+                return null;
+            }
+            Direction best = null;
+            int bestDistance = Integer.MAX_VALUE;
+            for (Direction d : DIRECTIONS) {
+                if (!isSafe(engine, d)) {
+                    continue;
+                }
+                int x = engine.getSegmentX(0) + d.dx();
+                int y = engine.getSegmentY(0) + d.dy();
+                int distance = Math.abs(x - engine.getFoodX()) + Math.abs(y - engine.getFoodY());
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = d;
+                }
+            }
+            return best;
+        }
+    }
+
+    // Follows a fixed cycle through every cell, so once on it the snake never dies and fills the board.
+    // Needs an even number of rows (column 0 is the way back up); obstacles will break it.
+    static final class HamiltonianPolicy implements Policy {
+        @Override
+        public Direction choose(SnakeEngine engine) {
+            int x = engine.getSegmentX(0);
+            int y = engine.getSegmentY(0);
+            Direction next = cycleDirection(x, y, engine.getCols(), engine.getRows());
+            if (next == engine.getDirection().opposite()) {
+                // Only at the spawn: the snake heads RIGHT, but on an odd row the cycle runs LEFT and the
+                // engine ignores reversals. Step onto the neighbouring even row and join the cycle there.
+                return y + 1 < engine.getRows() ? Direction.DOWN : Direction.UP;
+            }
+            return next;
+        }
+
+        private static Direction cycleDirection(int x, int y, int cols, int rows) {
+            if (x == 0) {
+                return y == 0 ? Direction.RIGHT : Direction.UP;
+            }
+            if (y % 2 == 0) {
+                return x == cols - 1 ? Direction.DOWN : Direction.RIGHT;
+            }
+            if (x == 1 && y != rows - 1) {
+                return Direction.DOWN;
+            }
+            return Direction.LEFT;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.snakevoicegame;
+
+/**
+ * Chooses the direction for the next tick of a headless game, e.g. in {@link BatchRunner}.
+ * Implementations are used by one game at a time and should not allocate per call.
+ */
+public interface Policy {
+
+    Direction choose(SnakeEngine engine);
+}
@@ -0,0 +1,87 @@
+package com.snakevoicegame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Re-simulates a {@link GameRecording} as fast as the engine can step, with no timer involved.
+ *
+ * <pre>
+ * java -cp SnakeVoiceGame.jar com.snakevoicegame.ReplayPlayer ~/.snakevoicegame-last-game.snkr [tick]
+ * </pre>
+ */
+public final class ReplayPlayer {
+
+    private final GameRecording recording;
+    private final SnakeEngine engine;
+    private int nextEvent;
+
+    public ReplayPlayer(GameRecording recording) {
+        this.recording = recording;
+        this.engine = new SnakeEngine(recording.getGameMode(), recording.getCols(), recording.getRows(),
+                recording.getSeed());
+    }
+
+    public GameRecording getRecording() {
+        return recording;
+    }
+
+    // Live engine; only read it between calls to seek/step
+    public SnakeEngine getEngine() {
+        return engine;
+    }
+
+    public long getTick() {
+        return engine.getTicks();
+    }
+
+    public boolean isFinished() {
+        return !engine.isRunning() || engine.getTicks() >= recording.getEndTick();
+    }
+
+    // Plays the next recorded tick; false once the recording or the game is over
+    public boolean step() {
+        if (isFinished()) {
+            return false;
+        }
+        long tick = engine.getTicks() + 1;
+        Direction direction = null;
+        if (nextEvent < recording.getEventCount() && recording.getEventTick(nextEvent) == tick) {
+            direction = recording.getEventDirection(nextEvent++);
+        }
+        engine.step(direction);
+        return true;
+    }
+
+    // Brings the engine to the given tick (clamped to the recording); going backwards replays from the start
+    public SnakeEngine seek(long tick) {
+        if (tick < engine.getTicks()) {
+            engine.reset(recording.getSeed());
+            nextEvent = 0;
+        }
+        while (engine.getTicks() < tick && step()) {
+            // keep stepping
+        }
+        return engine;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayPlayer <recording.snkr> [tick]");
+            System.exit(2);
+            return;
+        }
+        GameRecording recording = GameRecording.load(new File(args[0]));
+        long target = args.length > 1 ? Long.parseLong(args[1]) : recording.getEndTick();
+        ReplayPlayer player = new ReplayPlayer(recording);
+        long start = System.nanoTime();
+        SnakeEngine engine = player.seek(target);
+        double micros = (System.nanoTime() - start) / 1e3;
+        System.out.printf(Locale.ROOT, "%s seed=%d, %d direction changes, %d ticks recorded%n",
+                recording.getGameMode(), recording.getSeed(), recording.getEventCount(), recording.getEndTick());
+        System.out.printf(Locale.ROOT, "tick %d: score %d, length %d, head (%d,%d), %s (replayed in %.0f us)%n",
+                engine.getTicks(), engine.getScore(), engine.getLength(), engine.getSegmentX(0), engine.getSegmentY(0),
+                engine.getOutcome(), micros);
+    }
+}
@@ -0,0 +1,246 @@
+package com.snakevoicegame;
+
+/**
+ * Fixed-size history of the last {@code capacity} ticks for rewinding a game.
+ *
+ * <p>Every {@code keyframeInterval} ticks a keyframe stores the body bit-packed as the head cell plus
+ * two bits per segment (the step towards the next segment). Every tick in between stores only a delta:
+ * new head cell, whether the tail was released, the food cell and a few scalars. Reconstructing a tick
+ * decodes one keyframe and replays at most {@code keyframeInterval} deltas, so it is O(length + interval)
+ * whatever the session length, and memory is bounded by the capacity.
+ */
+public final class RewindBuffer {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final int FLAG_TAIL_RELEASED = 1;
+    private static final int FLAG_BOLT = 2;
+    private static final int DIRECTION_SHIFT = 2;
+
+    private final int capacity;
+    private final int keyframeInterval;
+    private final int cols;
+
+    // Per-tick deltas, indexed by tick % capacity
+    private final int[] deltaHead;
+    private final int[] deltaFood;
+    private final byte[] deltaFlags;
+    private final int[] deltaScore;
+    private final long[] deltaRng;
+    private final int[] deltaFoodSpawned;
+    private final int[] deltaBoltSpawned;
+
+    // Keyframes, indexed by (tick / keyframeInterval) % keyframeSlots
+    private final int keyframeSlots;
+    private final long[] keyTick;
+    private final int[] keyHead;
+    private final int[] keyLength;
+    private final long[][] keyBody; // 2 bits per segment link, grown on demand up to the board size
+    private final int[] keyFood;
+    private final byte[] keyFlags;
+    private final int[] keyScore;
+    private final long[] keyRng;
+    private final int[] keyFoodSpawned;
+    private final int[] keyBoltSpawned;
+
+    private long firstTick = -1; // -1 while empty
+    private long newestTick = -1;
+    private long highestTick = -1; // ring slots of ticks up to highestTick - capacity are overwritten
+    private int lastLength;
+
+    // Scratch ring used while reconstructing a tick
+    private final int[] work;
+
+    public RewindBuffer(int cols, int rows, int capacity, int keyframeInterval) {
+        if (capacity < keyframeInterval || keyframeInterval < 1) {
+            throw new IllegalArgumentException("capacity must be at least one keyframe interval");
+        }
+        this.capacity = capacity;
+        this.keyframeInterval = keyframeInterval;
+        this.cols = cols;
+        this.deltaHead = new int[capacity];
+        this.deltaFood = new int[capacity];
+        this.deltaFlags = new byte[capacity];
+        this.deltaScore = new int[capacity];
+        this.deltaRng = new long[capacity];
+        this.deltaFoodSpawned = new int[capacity];
+        this.deltaBoltSpawned = new int[capacity];
+        this.keyframeSlots = capacity / keyframeInterval + 2;
+        this.keyTick = new long[keyframeSlots];
+        this.keyHead = new int[keyframeSlots];
+        this.keyLength = new int[keyframeSlots];
+        this.keyBody = new long[keyframeSlots][];
+        this.keyFood = new int[keyframeSlots];
+        this.keyFlags = new byte[keyframeSlots];
+        this.keyScore = new int[keyframeSlots];
+        this.keyRng = new long[keyframeSlots];
+        this.keyFoodSpawned = new int[keyframeSlots];
+        this.keyBoltSpawned = new int[keyframeSlots];
+        this.work = new int[cols * rows];
+    }
+
+    // Forget everything and start from the engine's current state (call after a reset)
+    public void begin(SnakeEngine engine) {
+        firstTick = engine.getTicks();
+        newestTick = firstTick;
+        highestTick = firstTick;
+        writeKeyframe(engine);
+        lastLength = engine.getLength();
+    }
+
+    // Call after every tick the snake survived
+    public void record(SnakeEngine engine) {
+        long tick = engine.getTicks();
+        if (firstTick < 0 || tick != newestTick + 1) {
+            begin(engine);
+            return;
+        }
+        newestTick = tick;
+        highestTick = Math.max(highestTick, tick);
+        if (tick % keyframeInterval == 0) {
+            writeKeyframe(engine);
+        }
+        int slot = (int) (tick % capacity);
+        deltaHead[slot] = engine.getSegmentCell(0);
+        deltaFood[slot] = engine.hasFood() ? engine.getFoodY() * cols + engine.getFoodX() : -1;
+        deltaFlags[slot] = flags(engine, engine.getLength() == lastLength);
+        deltaScore[slot] = engine.getScore();
+        deltaRng[slot] = engine.getRngState();
+        deltaFoodSpawned[slot] = engine.getFoodSpawned();
+        deltaBoltSpawned[slot] = engine.getBoltSpawned();
+        lastLength = engine.getLength();
+    }
+
+    public boolean isEmpty() {
+        return firstTick < 0;
+    }
+
+    public long getNewestTick() {
+        return newestTick;
+    }
+
+    // Oldest tick that can still be reconstructed
+    public long getOldestTick() {
+        if (firstTick < 0) {
+            return -1;
+        }
+        long limit = highestTick - capacity;
+        long keyframe = limit <= 0 ? 0 : ((limit + keyframeInterval - 1) / keyframeInterval) * keyframeInterval;
+        return Math.max(firstTick, keyframe);
+    }
+
+    /**
+     * Puts the engine back into the state it had after {@code tick} and drops every later tick,
+     * since the game continues differently from there.
+     *
+     * @return false if the tick is outside the window
+     */
+    public boolean rewindTo(long tick, SnakeEngine engine) {
+        if (firstTick < 0 || tick > newestTick || tick < getOldestTick()) {
+            return false;
+        }
+        long keyframe = Math.max(firstTick, (tick / keyframeInterval) * keyframeInterval);
+        int k = keyframeSlot(keyframe);
+        if (keyTick[k] != keyframe) {
+            return false;
+        }
+
+        // Decode the keyframe body into the scratch ring: head at work[head], tail at work[head + length - 1]
+        int length = keyLength[k];
+        int head = work.length - length;
+        int cell = keyHead[k];
+        long[] links = keyBody[k];
+        work[head] = cell;
+        for (int i = 1; i < length; i++) {
+            int bits = (int) (links[(i - 1) >>> 5] >>> (((i - 1) & 31) << 1)) & 3;
+            Direction d = DIRECTIONS[bits];
+            cell += d.dy() * cols + d.dx();
+            work[head + i] = cell;
+        }
+
+        int food = keyFood[k];
+        int flags = keyFlags[k];
+        int score = keyScore[k];
+        long rng = keyRng[k];
+        int foodSpawned = keyFoodSpawned[k];
+        int boltSpawned = keyBoltSpawned[k];
+        for (long t = keyframe + 1; t <= tick; t++) {
+            int slot = (int) (t % capacity);
+            flags = deltaFlags[slot];
+            head = head == 0 ? work.length - 1 : head - 1;
+            work[head] = deltaHead[slot];
+            if ((flags & FLAG_TAIL_RELEASED) == 0) {
+                length++;
+            }
+            food = deltaFood[slot];
+            score = deltaScore[slot];
+            rng = deltaRng[slot];
+            foodSpawned = deltaFoodSpawned[slot];
+            boltSpawned = deltaBoltSpawned[slot];
+        }
+
+        engine.restore(work, head, length, DIRECTIONS[flags >>> DIRECTION_SHIFT], food,
+                (flags & FLAG_BOLT) != 0, score, tick, foodSpawned, boltSpawned, rng);
+        newestTick = tick;
+        lastLength = length;
+        return true;
+    }
+
+    private void writeKeyframe(SnakeEngine engine) {
+        long tick = engine.getTicks();
+        int k = keyframeSlot(tick);
+        int length = engine.getLength();
+        int words = (length - 1 + 31) >>> 5;
+        long[] links = keyBody[k];
+        if (links == null || links.length < words) {
+            links = new long[Math.max(words, 4)];
+            keyBody[k] = links;
+        }
+        for (int w = 0; w < words; w++) {
+            links[w] = 0L;
+        }
+        int previous = engine.getSegmentCell(0);
+        for (int i = 1; i < length; i++) {
+            int cell = engine.getSegmentCell(i);
+            links[(i - 1) >>> 5] |= (long) linkBits(previous, cell) << (((i - 1) & 31) << 1);
+            previous = cell;
+        }
+        keyTick[k] = tick;
+        keyHead[k] = engine.getSegmentCell(0);
+        keyLength[k] = length;
+        keyFood[k] = engine.hasFood() ? engine.getFoodY() * cols + engine.getFoodX() : -1;
+        keyFlags[k] = flags(engine, true);
+        keyScore[k] = engine.getScore();
+        keyRng[k] = engine.getRngState();
+        keyFoodSpawned[k] = engine.getFoodSpawned();
+        keyBoltSpawned[k] = engine.getBoltSpawned();
+    }
+
+    private int keyframeSlot(long tick) {
+        return (int) ((tick / keyframeInterval) % keyframeSlots);
+    }
+
+    private byte flags(SnakeEngine engine, boolean tailReleased) {
+        int flags = engine.getDirection().ordinal() << DIRECTION_SHIFT;
+        if (tailReleased) {
+            flags |= FLAG_TAIL_RELEASED;
+        }
+        if (engine.isBoltFood()) {
+            flags |= FLAG_BOLT;
+        }
+        return (byte) flags;
+    }
+
+    // Direction ordinal of the step from one segment to the next
+    private int linkBits(int from, int to) {
+        int delta = to - from;
+        if (delta == -cols) {
+            return Direction.UP.ordinal();
+        } else if (delta == cols) {
+            return Direction.DOWN.ordinal();
+        } else if (delta == -1) {
+            return Direction.LEFT.ordinal();
+        }
+        return Direction.RIGHT.ordinal();
+    }
+}
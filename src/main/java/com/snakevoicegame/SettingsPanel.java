@@ -4,9 +4,11 @@ import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
+import javax.swing.JSlider;
 import javax.swing.SwingConstants;
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -17,6 +19,7 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.event.ActionListener;
+import java.util.function.IntConsumer;
 
 public final class SettingsPanel extends JPanel {
 
@@ -35,6 +38,16 @@ public final class SettingsPanel extends JPanel {
                          GameMode currentGameMode,
                          GameModeChangeListener gameModeListener,
                          ActionListener onBack) {
+        this(currentMode, controlListener, currentGameMode, gameModeListener, new VoiceSettings(), onBack);
+    }
+
+    // voiceSettings is edited in place; a running voice controller picks up the changes immediately
+    public SettingsPanel(ControlMode currentMode,
+                         ModeChangeListener controlListener,
+                         GameMode currentGameMode,
+                         GameModeChangeListener gameModeListener,
+                         VoiceSettings voiceSettings,
+                         ActionListener onBack) {
         setLayout(new BorderLayout());
         setBackground(new Color(25, 25, 35));
 
@@ -142,11 +155,46 @@ public final class SettingsPanel extends JPanel {
         row3.add(scoresLabel);
         row3.add(scoreLabel);
 
+        // Voice activity detection: silence is not decoded at all
+        JLabel vadLabel = new JLabel("🎤 Voice:");
+        vadLabel.setFont(new Font("SansSerif", Font.BOLD, 18));
+        vadLabel.setForeground(new Color(220, 220, 255));
+
+        JCheckBox vad = new JCheckBox("Skip silence", voiceSettings.isVad());
+        vad.setFont(new Font("SansSerif", Font.PLAIN, 15));
+        vad.setForeground(new Color(200, 200, 220));
+        vad.setBackground(new Color(25, 25, 35));
+        vad.setFocusPainted(false);
+        vad.addActionListener(e -> voiceSettings.setVad(vad.isSelected()));
+
+        JPanel row4 = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
+        row4.setBackground(new Color(25, 25, 35));
+        row4.add(vadLabel);
+        row4.add(vad);
+
+        JPanel row5 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 2));
+        row5.setBackground(new Color(25, 25, 35));
+        addSlider(row5, "Energy", 50, 3000, voiceSettings.getVadEnergyThreshold(), "",
+                voiceSettings::setVadEnergyThreshold);
+        addSlider(row5, "Crossings", 5, 100, voiceSettings.getVadZeroCrossingPercent(), "%",
+                voiceSettings::setVadZeroCrossingPercent);
+
+        JPanel row6 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 2));
+        row6.setBackground(new Color(25, 25, 35));
+        addSlider(row6, "Hangover", 0, 1000, voiceSettings.getVadHangoverMillis(), " ms",
+                voiceSettings::setVadHangoverMillis);
+        addSlider(row6, "Pre-roll", 0, 1000, voiceSettings.getVadPreRollMillis(), " ms",
+                voiceSettings::setVadPreRollMillis);
+
         center.add(row1);
         center.add(javax.swing.Box.createRigidArea(new Dimension(0, 15)));
         center.add(row2);
         center.add(javax.swing.Box.createRigidArea(new Dimension(0, 15)));
         center.add(row3);
+        center.add(javax.swing.Box.createRigidArea(new Dimension(0, 15)));
+        center.add(row4);
+        center.add(row5);
+        center.add(row6);
         add(center, BorderLayout.CENTER);
 
         JPanel bottom = new JPanel(new FlowLayout(FlowLayout.CENTER));
@@ -158,6 +206,30 @@ public final class SettingsPanel extends JPanel {
         add(bottom, BorderLayout.SOUTH);
     }
 
+    // Label, slider and its current value; changes are applied while dragging
+    private static void addSlider(JPanel row, String text, int min, int max, int value, String unit,
+                                  IntConsumer onChange) {
+        JLabel label = new JLabel(text);
+        label.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        label.setForeground(new Color(200, 200, 220));
+        label.setPreferredSize(new Dimension(70, 20));
+        JSlider slider = new JSlider(min, max, Math.max(min, Math.min(max, value)));
+        slider.setBackground(new Color(25, 25, 35));
+        slider.setPreferredSize(new Dimension(120, 20));
+        slider.setFocusable(false);
+        JLabel valueLabel = new JLabel(slider.getValue() + unit);
+        valueLabel.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        valueLabel.setForeground(new Color(255, 215, 100));
+        valueLabel.setPreferredSize(new Dimension(60, 20));
+        slider.addChangeListener(e -> {
+            valueLabel.setText(slider.getValue() + unit);
+            onChange.accept(slider.getValue());
+        });
+        row.add(label);
+        row.add(slider);
+        row.add(valueLabel);
+    }
+
     private JRadioButton createStyledRadioButton(String text) {
         JRadioButton btn = new JRadioButton(text);
         btn.setFont(new Font("SansSerif", Font.PLAIN, 15));
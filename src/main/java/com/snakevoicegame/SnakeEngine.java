@@ -0,0 +1,518 @@
+package com.snakevoicegame;
+
+import java.util.Arrays;
+
+/**
+ * Game rules without any Swing/AWT dependency. One call to {@link #step(Direction)} is one game tick;
+ * the caller decides how ticks are scheduled (Swing timer, simulation thread, batch runner...).
+ */
+public final class SnakeEngine {
+
+    public static final int GRID_COLS = 30;
+    public static final int GRID_ROWS = 28;
+    public static final int MIN_GRID_SIZE = 10;
+    public static final int MAX_GRID_SIZE = 2048;
+    private static final int START_LENGTH = 3;
+
+    private final int cols;
+    private final int rows;
+    private GameMode gameMode;
+    private long rngState; // SplitMix64, one independent stream per engine
+
+    // Circular buffer of cells (y * cols + x); segment i lives at body[(head + i) % capacity]
+    private final int[] body;
+    private int head;
+    private int snakeLength;
+
+    private int foodX;
+    private int foodY;
+
+    private Direction direction = Direction.RIGHT;
+    private boolean running = false;
+    private GameOutcome outcome = GameOutcome.RUNNING;
+    private int score = 0;
+    private long ticks = 0;
+    private int foodSpawned = 0;
+    private int boltSpawned = 0;
+
+    // Special food ("bolt dot") support
+    private boolean isBoltFood = false; // false = small dot (10 pts), true = bolt dot (50 pts)
+    private int lastBoltAttemptSegment = 0; // floor(score / 50) when we last attempted to spawn bolt
+
+    // Labyrinth mode obstacles and the occupancy map (obstacles + snake), both bitsets over y * cols + x
+    private final long[] obstacleGrid;
+    private final long[] occupied;
+    private boolean hasObstacles = false;
+
+    // Dense list of free cells plus each cell's position in it (-1 when occupied), for O(1) food placement
+    private final int[] freeCells;
+    private final int[] freePos;
+    private int freeCount;
+
+    // Cells whose contents changed in the last step, for partial repaints; resets and restores change everything
+    private final int[] dirtyCells = new int[4];
+    private int dirtyCount;
+
+    public SnakeEngine(GameMode gameMode) {
+        this(gameMode, System.nanoTime());
+    }
+
+    public SnakeEngine(GameMode gameMode, long seed) {
+        this(gameMode, GRID_COLS, GRID_ROWS, seed);
+    }
+
+    public SnakeEngine(GameMode gameMode, int cols, int rows, long seed) {
+        if (cols < MIN_GRID_SIZE || rows < MIN_GRID_SIZE || cols > MAX_GRID_SIZE || rows > MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("Grid must be between " + MIN_GRID_SIZE + " and "
+                    + MAX_GRID_SIZE + " cells per side, got " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.gameMode = gameMode == null ? GameMode.CLASSIC : gameMode;
+        this.rngState = seed;
+        this.body = new int[cols * rows];
+        this.obstacleGrid = new long[(cols * rows + 63) >>> 6];
+        this.occupied = new long[obstacleGrid.length];
+        this.freeCells = new int[cols * rows];
+        this.freePos = new int[cols * rows];
+        reset();
+    }
+
+    // Restart with a fresh RNG stream, so the same seed always plays out the same game
+    public void reset(long seed) {
+        rngState = seed;
+        reset();
+    }
+
+    // Same board, possibly another mode: lets one engine (and its arrays) serve every game of a session
+    public void reset(GameMode gameMode, long seed) {
+        this.gameMode = gameMode == null ? GameMode.CLASSIC : gameMode;
+        reset(seed);
+    }
+
+    public void reset() {
+        score = 0;
+        ticks = 0;
+        foodSpawned = 0;
+        boltSpawned = 0;
+        snakeLength = START_LENGTH;
+        head = 0;
+        int startX = cols / 2;
+        int startY = rows / 2;
+        for (int i = 0; i < snakeLength; i++) {
+            body[i] = startY * cols + (startX - i);
+        }
+        direction = Direction.RIGHT;
+        // reset special food / speed state
+        isBoltFood = false;
+        lastBoltAttemptSegment = 0;
+
+        // obstacles for labyrinth mode
+        Arrays.fill(obstacleGrid, 0L);
+        hasObstacles = gameMode == GameMode.LABYRINTH;
+        if (hasObstacles) {
+            generateLabyrinth(startX, startY);
+        }
+        rebuildOccupancy();
+
+        running = true;
+        outcome = GameOutcome.RUNNING;
+        placeFood();
+        dirtyCount = 0;
+    }
+
+    // Occupancy bitset and free-cell index from scratch, O(cells)
+    private void rebuildOccupancy() {
+        System.arraycopy(obstacleGrid, 0, occupied, 0, occupied.length);
+        for (int i = 0; i < snakeLength; i++) {
+            setBit(occupied, getSegmentCell(i));
+        }
+        freeCount = 0;
+        for (int cell = 0; cell < freeCells.length; cell++) {
+            if (testBit(occupied, cell)) {
+                freePos[cell] = -1;
+            } else {
+                freePos[cell] = freeCount;
+                freeCells[freeCount++] = cell;
+            }
+        }
+    }
+
+    // Loads a running state reconstructed by RewindBuffer; the body is read from a ring starting at ringHead
+    void restore(int[] ring, int ringHead, int length, Direction direction, int foodCell, boolean boltFood,
+                 int score, long ticks, int foodSpawned, int boltSpawned, long rngState) {
+        int slot = ringHead;
+        for (int i = 0; i < length; i++) {
+            body[i] = ring[slot];
+            slot = slot + 1 == ring.length ? 0 : slot + 1;
+        }
+        this.head = 0;
+        this.snakeLength = length;
+        this.direction = direction;
+        this.foodX = foodCell < 0 ? -1 : foodCell % cols;
+        this.foodY = foodCell < 0 ? -1 : foodCell / cols;
+        this.isBoltFood = boltFood;
+        this.score = score;
+        this.lastBoltAttemptSegment = score / 50; // placement happens on every score change
+        this.ticks = ticks;
+        this.foodSpawned = foodSpawned;
+        this.boltSpawned = boltSpawned;
+        this.rngState = rngState;
+        this.running = true;
+        this.outcome = GameOutcome.RUNNING;
+        this.dirtyCount = 0;
+        rebuildOccupancy();
+    }
+
+    /**
+     * Advances the game by one tick. A requested direction that would reverse the snake onto itself
+     * is ignored; {@code null} keeps the current direction.
+     *
+     * @return whether the game is still running after this tick
+     */
+    public boolean step(Direction requested) {
+        if (!running) {
+            return false;
+        }
+        if (requested != null && requested != direction.opposite()) {
+            direction = requested;
+        }
+        ticks++;
+        dirtyCount = 0;
+        markDirty(getSegmentCell(0)); // the old head is drawn as body from now on
+        int hx = getSegmentX(0) + direction.dx();
+        int hy = getSegmentY(0) + direction.dy();
+        // Wall collision: the head never leaves the board
+        if (hx < 0 || hx >= cols || hy < 0 || hy >= rows) {
+            endGame(GameOutcome.HIT_WALL);
+            return false;
+        }
+        int headCell = hy * cols + hx;
+        boolean eats = hx == foodX && hy == foodY;
+        if (!eats) {
+            // the tail moves away in the same tick, so following it closely is allowed
+            int tail = getSegmentCell(snakeLength - 1);
+            release(tail);
+            markDirty(tail);
+        }
+        // Obstacle and self collision are a single occupancy lookup
+        boolean blocked = testBit(occupied, headCell);
+        moveSnake(headCell, eats);
+        markDirty(headCell);
+        if (blocked) {
+            endGame(testBit(obstacleGrid, headCell) ? GameOutcome.HIT_OBSTACLE : GameOutcome.HIT_SELF);
+            return false;
+        }
+        occupy(headCell);
+        if (eats) {
+            score += isBoltFood ? 50 : 10;
+            placeFood();
+        }
+        return running;
+    }
+
+    // O(1): the head slot moves back one step; without growth the old tail slot is simply reused
+    private void moveSnake(int headCell, boolean grow) {
+        head = head == 0 ? body.length - 1 : head - 1;
+        body[head] = headCell;
+        if (grow) {
+            snakeLength++;
+        }
+    }
+
+    private void occupy(int cell) {
+        setBit(occupied, cell);
+        // swap-remove from the free list
+        int pos = freePos[cell];
+        int last = freeCells[--freeCount];
+        freeCells[pos] = last;
+        freePos[last] = pos;
+        freePos[cell] = -1;
+    }
+
+    private void release(int cell) {
+        clearBit(occupied, cell);
+        freePos[cell] = freeCount;
+        freeCells[freeCount++] = cell;
+    }
+
+    private void markDirty(int cell) {
+        if (dirtyCount < dirtyCells.length) {
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+
+    private void endGame(GameOutcome result) {
+        running = false;
+        outcome = result;
+    }
+
+    // Package-private so benchmarks can measure placement on prepared boards
+    void placeFood() {
+        if (freeCount == 0) {
+            // every cell is snake or wall: nothing left to eat
+            foodX = -1;
+            foodY = -1;
+            isBoltFood = false;
+            endGame(GameOutcome.BOARD_FULL);
+            return;
+        }
+        int cell = freeCells[nextInt(freeCount)];
+        foodX = cell % cols;
+        foodY = cell / cols;
+        markDirty(cell);
+
+        // Decide food type for the newly placed food
+        isBoltFood = shouldSpawnBoltNow();
+        foodSpawned++;
+        if (isBoltFood) {
+            boltSpawned++;
+        }
+    }
+
+    // Decide whether to spawn a bolt dot now. We try at most once per 50-score segment.
+    private boolean shouldSpawnBoltNow() {
+        int segment = score / 50; // 0..n
+        if (segment >= 1 && segment != lastBoltAttemptSegment) {
+            lastBoltAttemptSegment = segment;
+            return nextDouble() < getBoltSpawnChance();
+        }
+        return false;
+    }
+
+    // Tick delay in ms: start slow, then speed up at score thresholds
+    public int getTickDelay() {
+        int base = getBaseDelay();
+        if (score >= 500) {
+            return (int) Math.round(base * 0.4);
+        } else if (score >= 400) {
+            return (int) Math.round(base * 0.5);
+        } else if (score >= 300) {
+            return (int) Math.round(base * 0.6);
+        } else if (score >= 200) {
+            return (int) Math.round(base * 0.7);
+        } else if (score >= 100) {
+            return (int) Math.round(base * 0.85);
+        }
+        return base;
+    }
+
+    public int getBaseDelay() {
+        switch (gameMode) {
+            case INTERMEDIATE:
+                return 270; // slower start
+            case EXPERT:
+                return 240; // still slow at start, but a bit faster
+            case LABYRINTH:
+                return 300; // slow start due to obstacles
+            case CLASSIC:
+            default:
+                return 300; // very slow start
+        }
+    }
+
+    public double getBoltSpawnChance() {
+        switch (gameMode) {
+            case INTERMEDIATE:
+                return 0.4;
+            case EXPERT:
+                return 0.3;
+            case LABYRINTH:
+                return 0.5;
+            case CLASSIC:
+            default:
+                return 0.5;
+        }
+    }
+
+    private void generateLabyrinth(int startX, int startY) {
+        // vertical pillars every 4 columns with periodic gaps
+        for (int x = 4; x < cols - 4; x += 4) {
+            boolean gapToggle = (x / 4) % 2 == 0;
+            for (int y = 2; y < rows - 2; y++) {
+                boolean isGap = (y % 6 == 0) ^ gapToggle; // staggered gaps
+                if (!isGap) {
+                    setBit(obstacleGrid, y * cols + x);
+                }
+            }
+        }
+        // clear a 5x5 safe box around the starting snake position
+        for (int dx = -3; dx <= 3; dx++) {
+            for (int dy = -3; dy <= 3; dy++) {
+                int cx = startX + dx;
+                int cy = startY + dy;
+                if (cx >= 0 && cx < cols && cy >= 0 && cy < rows) {
+                    clearBit(obstacleGrid, cy * cols + cx);
+                }
+            }
+        }
+    }
+
+    // Copies the complete state of another engine of the same mode and board size (benchmarks, look-ahead)
+    void copyFrom(SnakeEngine other) {
+        if (other.cols != cols || other.rows != rows || other.gameMode != gameMode) {
+            throw new IllegalArgumentException("Engines differ in board size or mode");
+        }
+        System.arraycopy(other.body, 0, body, 0, body.length);
+        head = other.head;
+        snakeLength = other.snakeLength;
+        foodX = other.foodX;
+        foodY = other.foodY;
+        direction = other.direction;
+        running = other.running;
+        outcome = other.outcome;
+        score = other.score;
+        ticks = other.ticks;
+        foodSpawned = other.foodSpawned;
+        boltSpawned = other.boltSpawned;
+        isBoltFood = other.isBoltFood;
+        lastBoltAttemptSegment = other.lastBoltAttemptSegment;
+        System.arraycopy(other.obstacleGrid, 0, obstacleGrid, 0, obstacleGrid.length);
+        System.arraycopy(other.occupied, 0, occupied, 0, occupied.length);
+        hasObstacles = other.hasObstacles;
+        System.arraycopy(other.freeCells, 0, freeCells, 0, freeCells.length);
+        System.arraycopy(other.freePos, 0, freePos, 0, freePos.length);
+        freeCount = other.freeCount;
+        rngState = other.rngState;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    public int getLength() {
+        return snakeLength;
+    }
+
+    // Segment 0 is the head, getLength() - 1 the tail
+    public int getSegmentCell(int index) {
+        int slot = head + index;
+        if (slot >= body.length) {
+            slot -= body.length;
+        }
+        return body[slot];
+    }
+
+    public int getSegmentX(int index) {
+        return getSegmentCell(index) % cols;
+    }
+
+    public int getSegmentY(int index) {
+        return getSegmentCell(index) / cols;
+    }
+
+    public int getFoodX() {
+        return foodX;
+    }
+
+    public int getFoodY() {
+        return foodY;
+    }
+
+    // false once the board is full
+    public boolean hasFood() {
+        return foodX >= 0;
+    }
+
+    public boolean isBoltFood() {
+        return isBoltFood;
+    }
+
+    public boolean hasObstacles() {
+        return hasObstacles;
+    }
+
+    public boolean isObstacle(int x, int y) {
+        return testBit(obstacleGrid, y * cols + x);
+    }
+
+    // Copy of the obstacle bitset (y * cols + x), or null without obstacles
+    public long[] copyObstacles() {
+        return hasObstacles ? obstacleGrid.clone() : null;
+    }
+
+    // Obstacle or snake segment
+    public boolean isOccupied(int x, int y) {
+        return testBit(occupied, y * cols + x);
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    public int getFreeCellCount() {
+        return freeCount;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    // Number of cells changed by the last step (old head, new head, vacated tail, new food)
+    public int getDirtyCellCount() {
+        return dirtyCount;
+    }
+
+    public int getDirtyCell(int index) {
+        return dirtyCells[index];
+    }
+
+    long getRngState() {
+        return rngState;
+    }
+
+    public int getFoodSpawned() {
+        return foodSpawned;
+    }
+
+    public int getBoltSpawned() {
+        return boltSpawned;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    private long nextLong() {
+        long z = (rngState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    private double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    private static boolean testBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clearBit(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+}
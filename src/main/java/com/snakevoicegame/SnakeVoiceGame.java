@@ -6,25 +6,113 @@ import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public final class SnakeVoiceGame {
 
     private static final String CARD_MENU = "menu";
     private static final String CARD_SETTINGS = "settings";
     private static final String CARD_GAME = "game";
+    private static final int DEFAULT_ACTIVE_FPS = 60;
 
     private JFrame frame;
     private java.awt.Container cards;
+    private GamePanel gamePanel; // one panel for the whole run; each Start only resets it
     private ControlMode controlMode = ControlMode.KEYBOARD;
     private GameMode gameMode = GameMode.CLASSIC;
+    private Long seed; // --seed N makes every session reproducible
+    private int gridCols = SnakeEngine.GRID_COLS; // --grid COLSxROWS, e.g. 2000x2000
+    private int gridRows = SnakeEngine.GRID_ROWS;
+    private int activeFps = 0; // --active-render or --fps N: canvas render thread instead of Swing repaint
+    private final VoiceSettings voiceSettings = new VoiceSettings(); // --open-vocabulary, --final-results-only, --voice-chunk-ms, ...
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new SnakeVoiceGame().createAndShowGui());
+        SnakeVoiceGame game = new SnakeVoiceGame();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            try {
+                switch (arg) {
+                    case "--active-render":
+                        game.activeFps = game.activeFps > 0 ? game.activeFps : DEFAULT_ACTIVE_FPS;
+                        break;
+                    case "--open-vocabulary":
+                        game.voiceSettings.setGrammar(false);
+                        break;
+                    case "--final-results-only":
+                        game.voiceSettings.setPartialResults(false);
+                        break;
+                    case "--seed":
+                        game.seed = Long.parseLong(requireValue(arg, value));
+                        i++;
+                        break;
+                    case "--fps":
+                        game.activeFps = Integer.parseInt(requireValue(arg, value));
+                        i++;
+                        break;
+                    case "--grid":
+                        String[] size = requireValue(arg, value).toLowerCase(java.util.Locale.ROOT).split("x");
+                        game.gridCols = Integer.parseInt(size[0].trim());
+                        game.gridRows = Integer.parseInt(size[size.length - 1].trim());
+                        i++;
+                        break;
+                    case "--voice-chunk-ms":
+                        game.voiceSettings.setChunkMillis(Integer.parseInt(requireValue(arg, value))); // 0 = auto-tune
+                        i++;
+                        break;
+                    case "--voice-buffer-ms":
+                        game.voiceSettings.setLineBufferMillis(Integer.parseInt(requireValue(arg, value)));
+                        i++;
+                        break;
+                    default:
+                        exitWithUsage("unknown option " + arg);
+                        return;
+                }
+            } catch (NumberFormatException e) {
+                exitWithUsage(arg + " expects a number, got " + value);
+            }
+        }
+        if (game.gridCols < SnakeEngine.MIN_GRID_SIZE || game.gridRows < SnakeEngine.MIN_GRID_SIZE
+                || game.gridCols > SnakeEngine.MAX_GRID_SIZE || game.gridRows > SnakeEngine.MAX_GRID_SIZE) {
+            System.err.println("SnakeVoiceGame: --grid must be between " + SnakeEngine.MIN_GRID_SIZE + " and "
+                    + SnakeEngine.MAX_GRID_SIZE + " cells per side");
+            System.exit(2);
+        }
+        VoskModelRegistry.preload(); // seconds of work; done long before the first voice game starts
+        SwingUtilities.invokeLater(game::createAndShowGui);
+    }
+
+    private static String requireValue(String option, String value) {
+        if (value == null) {
+            exitWithUsage(option + " needs a value");
+        }
+        return value;
+    }
+
+    private static void exitWithUsage(String problem) {
+        System.err.println("SnakeVoiceGame: " + problem);
+        System.err.println("Usage: SnakeVoiceGame [--seed N] [--grid COLSxROWS] [--active-render] [--fps N] "
+                + "[--open-vocabulary] [--final-results-only] [--voice-chunk-ms N] [--voice-buffer-ms N]");
+        System.exit(2);
     }
 
     private void createAndShowGui() {
         frame = new JFrame("Snake Voice Game");
-        frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        frame.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                gamePanel.suspend(); // saves the score of a crash that could still have been rewound
+                frame.dispose();
+                // the loop thread saves it; wait for that off the EDT, then exit
+                Thread exit = new Thread(() -> {
+                    gamePanel.awaitSuspended();
+                    System.exit(0);
+                }, "Exit");
+                exit.start();
+            }
+        });
         frame.setLayout(new BorderLayout());
 
         cards = new JPanel(new CardLayout());
@@ -36,15 +124,23 @@ public final class SnakeVoiceGame {
 
         SettingsPanel settings = new SettingsPanel(
                 controlMode,
-                mode -> controlMode = mode,
+                mode -> {
+                    controlMode = mode;
+                    if (mode == ControlMode.VOICE) {
+                        VoskModelRegistry.preload(); // retries a load that failed earlier
+                    }
+                },
                 gameMode,
                 gm -> gameMode = gm,
+                voiceSettings,
                 e -> showMenu()
         );
 
         cards.add(menu, CARD_MENU);
         cards.add(settings, CARD_SETTINGS);
-        cards.add(new GamePanel(controlMode, gameMode), CARD_GAME); // placeholder; replaced on start
+        gamePanel = new GamePanel(controlMode, gameMode, seed, gridCols, gridRows, activeFps);
+        gamePanel.setVoiceSettings(voiceSettings);
+        cards.add(gamePanel, CARD_GAME);
 
         frame.add(cards, BorderLayout.CENTER);
         frame.pack();
@@ -56,19 +152,19 @@ public final class SnakeVoiceGame {
     }
 
     private void showMenu() {
+        gamePanel.suspend();
         switchCard(CARD_MENU);
     }
 
     private void showSettings() {
+        gamePanel.suspend();
         switchCard(CARD_SETTINGS);
     }
 
     private void showGame() {
-        // Recreate game panel with the chosen control and game mode
-        cards.remove(2);
-        cards.add(new GamePanel(controlMode, gameMode), CARD_GAME);
+        // Reset the long-lived panel to the chosen control and game mode
         switchCard(CARD_GAME);
-        frame.pack();
+        gamePanel.startSession(controlMode, gameMode);
     }
 
     private void switchCard(String name) {
@@ -0,0 +1,146 @@
+package com.snakevoicegame;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * The snake and food tiles pre-rendered once into a single image: the head facing each {@link Direction},
+ * a body segment, food and bolt food. Cells are then drawn with one {@code drawImage} each instead of
+ * antialiased gradient fills.
+ *
+ * <p>The atlas is rendered at the device scale of the Graphics it is drawn into (e.g. 2x on HiDPI
+ * screens), so sprites are as sharp as direct drawing, and rebuilt when that scale changes.
+ */
+final class SpriteAtlas {
+
+    static final int BODY = Direction.values().length; // head sprites come first, by direction ordinal
+    static final int FOOD = BODY + 1;
+    static final int BOLT = BODY + 2;
+    private static final int SPRITES = BOLT + 1;
+    private static final int TILE_SIZE = GameRenderer.TILE_SIZE;
+
+    private BufferedImage atlas;
+    private GraphicsConfiguration device;
+    private double scaleX;
+    private double scaleY;
+    private int spriteWidth; // device pixels
+    private int spriteHeight;
+
+    // Call once per frame before drawing; only looks at the scale when the device changes
+    void validate(Graphics2D g2) {
+        GraphicsConfiguration gc = g2.getDeviceConfiguration();
+        if (atlas != null && gc == device) {
+            return;
+        }
+        device = gc;
+        AffineTransform deviceTransform = gc != null ? gc.getDefaultTransform() : new AffineTransform();
+        double sx = Math.abs(deviceTransform.getScaleX());
+        double sy = Math.abs(deviceTransform.getScaleY());
+        sx = sx <= 0 ? 1 : sx;
+        sy = sy <= 0 ? 1 : sy;
+        if (atlas == null || sx != scaleX || sy != scaleY) {
+            build(gc, sx, sy);
+        }
+    }
+
+    static int head(Direction direction) {
+        return direction.ordinal();
+    }
+
+    void draw(Graphics2D g2, int sprite, int x, int y) {
+        int sx = sprite * spriteWidth;
+        g2.drawImage(atlas, x, y, x + TILE_SIZE, y + TILE_SIZE, sx, 0, sx + spriteWidth, spriteHeight, null);
+    }
+
+    private void build(GraphicsConfiguration gc, double sx, double sy) {
+        scaleX = sx;
+        scaleY = sy;
+        spriteWidth = (int) Math.ceil(TILE_SIZE * sx);
+        spriteHeight = (int) Math.ceil(TILE_SIZE * sy);
+        atlas = gc != null
+                ? gc.createCompatibleImage(spriteWidth * SPRITES, spriteHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(spriteWidth * SPRITES, spriteHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2 = atlas.createGraphics();
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(0, 0, atlas.getWidth(), atlas.getHeight());
+        g2.setComposite(AlphaComposite.SrcOver);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (Direction d : Direction.values()) {
+            Graphics2D cell = cell(g2, head(d));
+            // the head is drawn facing right; the other directions are quarter turns of it
+            cell.rotate(quarterTurns(d) * Math.PI / 2, TILE_SIZE / 2.0, TILE_SIZE / 2.0);
+            drawHead(cell);
+            cell.dispose();
+        }
+        Graphics2D cell = cell(g2, BODY);
+        drawBody(cell);
+        cell.dispose();
+        cell = cell(g2, FOOD);
+        drawFood(cell);
+        cell.dispose();
+        cell = cell(g2, BOLT);
+        drawBolt(cell);
+        cell.dispose();
+        g2.dispose();
+    }
+
+    // Graphics for one sprite slot, in tile coordinates
+    private Graphics2D cell(Graphics2D atlasGraphics, int sprite) {
+        Graphics2D cell = (Graphics2D) atlasGraphics.create(sprite * spriteWidth, 0, spriteWidth, spriteHeight);
+        cell.scale(scaleX, scaleY);
+        return cell;
+    }
+
+    private static int quarterTurns(Direction d) {
+        switch (d) {
+            case DOWN:
+                return 1;
+            case LEFT:
+                return 2;
+            case UP:
+                return 3;
+            case RIGHT:
+            default:
+                return 0;
+        }
+    }
+
+    private static void drawHead(Graphics2D g2) {
+        // Head with bright gradient
+        g2.setPaint(new GradientPaint(0, 0, new Color(140, 255, 140), TILE_SIZE, TILE_SIZE, new Color(80, 200, 80)));
+        g2.fillRoundRect(1, 1, TILE_SIZE - 2, TILE_SIZE - 2, 6, 6);
+        g2.setColor(new Color(60, 180, 60));
+        g2.setStroke(new BasicStroke(2));
+        g2.drawRoundRect(1, 1, TILE_SIZE - 2, TILE_SIZE - 2, 6, 6);
+    }
+
+    private static void drawBody(Graphics2D g2) {
+        // Body with subtle gradient
+        g2.setPaint(new GradientPaint(0, 0, new Color(100, 200, 100), TILE_SIZE, TILE_SIZE, new Color(60, 160, 60)));
+        g2.fillRoundRect(2, 2, TILE_SIZE - 4, TILE_SIZE - 4, 4, 4);
+    }
+
+    private static void drawFood(Graphics2D g2) {
+        // Regular food with gradient
+        g2.setPaint(new GradientPaint(0, 0, new Color(255, 100, 100), TILE_SIZE, TILE_SIZE, new Color(200, 40, 40)));
+        g2.fillOval(3, 3, TILE_SIZE - 6, TILE_SIZE - 6);
+    }
+
+    private static void drawBolt(Graphics2D g2) {
+        // Gold bolt food with gradient
+        g2.setPaint(new GradientPaint(0, 0, new Color(255, 230, 100), TILE_SIZE, TILE_SIZE, new Color(255, 180, 0)));
+        g2.fillOval(2, 2, TILE_SIZE - 4, TILE_SIZE - 4);
+        g2.setColor(new Color(255, 215, 0));
+        g2.setStroke(new BasicStroke(2));
+        g2.drawOval(2, 2, TILE_SIZE - 4, TILE_SIZE - 4);
+    }
+}
@@ -0,0 +1,141 @@
+package com.snakevoicegame;
+
+/**
+ * Cheap speech detector in front of the recognizer, so silence is never decoded. Audio (16 kHz, 16-bit
+ * little-endian mono) is judged in 10 ms frames: a frame is speech when its RMS energy reaches the
+ * threshold and its zero-crossing rate stays below the maximum, which keeps hiss and fan noise out.
+ *
+ * <p>When speech starts, the last {@link VoiceSettings#getVadPreRollMillis() pre-roll} of silence is
+ * forwarded first so the start of the word is not cut off; after the last speech frame audio keeps
+ * flowing for the {@link VoiceSettings#getVadHangoverMillis() hangover} so short pauses inside a phrase
+ * do not split it. Thresholds are read from {@link VoiceSettings} on every call. Not thread-safe.
+ */
+final class VoiceActivityDetector {
+
+    static final int FRAME_BYTES = 320; // 10 ms
+    private static final int FRAME_MILLIS = 10;
+    private static final int MAX_PRE_ROLL_FRAMES = 100; // 1 s
+
+    private final VoiceSettings settings;
+    private final byte[] preRoll = new byte[MAX_PRE_ROLL_FRAMES * FRAME_BYTES]; // ring of recent silent frames
+    private int preRollHead; // oldest frame
+    private int preRollFrames;
+    private final byte[] partial = new byte[FRAME_BYTES]; // carried over until a frame is complete
+    private int partialBytes;
+    private int hangoverLeft; // frames still forwarded after the last speech frame; 0 while silent
+    private boolean speech;
+    private boolean utteranceEnded;
+
+    VoiceActivityDetector(VoiceSettings settings) {
+        this.settings = settings;
+    }
+
+    // Capacity out needs for process() with this much input: input, pre-roll and a carried-over frame
+    static int maxOutputBytes(int inputBytes) {
+        return inputBytes + (MAX_PRE_ROLL_FRAMES + 1) * FRAME_BYTES;
+    }
+
+    void reset() {
+        preRollHead = 0;
+        preRollFrames = 0;
+        partialBytes = 0;
+        hangoverLeft = 0;
+        speech = false;
+        utteranceEnded = false;
+    }
+
+    // Inside speech or its hangover
+    boolean isSpeech() {
+        return speech;
+    }
+
+    // Whether the last process() call saw the end of an utterance, i.e. its hangover ran out
+    boolean utteranceEnded() {
+        return utteranceEnded;
+    }
+
+    /**
+     * Takes the next captured bytes and copies the ones worth decoding into out, in order.
+     * Returns how many that were; 0 while it is quiet.
+     */
+    int process(byte[] audio, int length, byte[] out) {
+        utteranceEnded = false;
+        int energyThreshold = settings.getVadEnergyThreshold();
+        int maxCrossings = settings.getVadZeroCrossingPercent() * (FRAME_BYTES / 2) / 100;
+        int hangoverFrames = settings.getVadHangoverMillis() / FRAME_MILLIS;
+        int preRollLimit = Math.min(MAX_PRE_ROLL_FRAMES, settings.getVadPreRollMillis() / FRAME_MILLIS);
+
+        int written = 0;
+        int offset = 0;
+        while (offset < length) {
+            int take = Math.min(FRAME_BYTES - partialBytes, length - offset);
+            System.arraycopy(audio, offset, partial, partialBytes, take);
+            partialBytes += take;
+            offset += take;
+            if (partialBytes < FRAME_BYTES) {
+                break;
+            }
+            partialBytes = 0;
+
+            if (isSpeechFrame(partial, energyThreshold, maxCrossings)) {
+                if (!speech) {
+                    speech = true;
+                    written = drainPreRoll(out, written);
+                }
+                hangoverLeft = hangoverFrames;
+            } else if (speech && hangoverLeft-- <= 0) {
+                speech = false;
+                utteranceEnded = true;
+            }
+
+            if (speech) {
+                System.arraycopy(partial, 0, out, written, FRAME_BYTES);
+                written += FRAME_BYTES;
+            } else {
+                keepForPreRoll(partial, preRollLimit);
+            }
+        }
+        return written;
+    }
+
+    private static boolean isSpeechFrame(byte[] frame, int energyThreshold, int maxCrossings) {
+        long sumSquares = 0;
+        int crossings = 0;
+        int previous = 0;
+        for (int i = 0; i < FRAME_BYTES; i += 2) {
+            int sample = (short) ((frame[i] & 0xFF) | (frame[i + 1] << 8));
+            sumSquares += (long) sample * sample;
+            if ((sample ^ previous) < 0) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        double rms = Math.sqrt((double) sumSquares / (FRAME_BYTES / 2));
+        return rms >= energyThreshold && crossings <= maxCrossings;
+    }
+
+    private void keepForPreRoll(byte[] frame, int limit) {
+        if (limit <= 0) {
+            preRollFrames = 0;
+            return;
+        }
+        while (preRollFrames >= limit) {
+            preRollHead = (preRollHead + 1) % MAX_PRE_ROLL_FRAMES; // drop the oldest
+            preRollFrames--;
+        }
+        int slot = (preRollHead + preRollFrames) % MAX_PRE_ROLL_FRAMES;
+        System.arraycopy(frame, 0, preRoll, slot * FRAME_BYTES, FRAME_BYTES);
+        preRollFrames++;
+    }
+
+    private int drainPreRoll(byte[] out, int written) {
+        for (int i = 0; i < preRollFrames; i++) {
+            int slot = (preRollHead + i) % MAX_PRE_ROLL_FRAMES;
+            System.arraycopy(preRoll, slot * FRAME_BYTES, out, written, FRAME_BYTES);
+            written += FRAME_BYTES;
+        }
+        preRollHead = 0;
+        preRollFrames = 0;
+        return written;
+    }
+}
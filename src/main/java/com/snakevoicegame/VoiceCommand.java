@@ -0,0 +1,75 @@
+package com.snakevoicegame;
+
+import java.util.Locale;
+
+/**
+ * One recognized voice command, with when the audio that completed it was captured and when the
+ * recognizer reported it. Immutable.
+ */
+public final class VoiceCommand {
+
+    public enum Type {
+        UP(Direction.UP),
+        DOWN(Direction.DOWN),
+        LEFT(Direction.LEFT),
+        RIGHT(Direction.RIGHT),
+        RESTART(null);
+
+        private final Direction direction;
+
+        Type(Direction direction) {
+            this.direction = direction;
+        }
+
+        // The turn this command asks for; null for RESTART
+        public Direction direction() {
+            return direction;
+        }
+
+        // The type for a phrase of commands.gram, e.g. "left"; null if it is not a command
+        static Type fromPhrase(String phrase) {
+            if (phrase == null) {
+                return null;
+            }
+            try {
+                return valueOf(phrase.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private final Type type;
+    private final long captureNanos;
+    private final long recognizedNanos;
+
+    VoiceCommand(Type type, long captureNanos, long recognizedNanos) {
+        this.type = type;
+        this.captureNanos = captureNanos;
+        this.recognizedNanos = recognizedNanos;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // The turn this command asks for; null for RESTART
+    public Direction getDirection() {
+        return type.direction();
+    }
+
+    // System.nanoTime() at which the audio that completed the command was captured
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    // System.nanoTime() at which the recognizer produced the command
+    public long getRecognizedNanos() {
+        return recognizedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
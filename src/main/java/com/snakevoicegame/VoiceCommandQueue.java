@@ -0,0 +1,73 @@
+package com.snakevoicegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue of recognized commands, oldest first. The recognizer thread offers and both the
+ * game loop (turns, one per tick) and the event dispatch thread (restart after a game over) poll, so it
+ * is safe for several producers and consumers: every slot has a sequence number telling whose turn it
+ * is, and a position is claimed with a compare-and-set. When it is full the new command is rejected, so
+ * the turns already buffered keep their order.
+ */
+final class VoiceCommandQueue {
+
+    private final AtomicReferenceArray<VoiceCommand> commands;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next position to offer to
+    private final AtomicLong head = new AtomicLong(); // next position to poll from
+
+    VoiceCommandQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.commands = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // False if the queue is full
+    boolean offer(VoiceCommand command) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence < position) {
+                return false; // still holds a command from one lap ago
+            }
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                commands.set(slot, command);
+                sequences.set(slot, position + 1); // now the consumers' turn
+                return true;
+            }
+        }
+    }
+
+    // The oldest command, or null if there is none
+    VoiceCommand poll() {
+        while (true) {
+            long position = head.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence < position + 1) {
+                return null; // not offered yet
+            }
+            if (sequence == position + 1 && head.compareAndSet(position, position + 1)) {
+                VoiceCommand command = commands.getAndSet(slot, null);
+                sequences.set(slot, position + mask + 1); // free for the producers' next lap
+                return command;
+            }
+        }
+    }
+
+    void clear() {
+        while (poll() != null) {
+            // drop everything buffered
+        }
+    }
+}
@@ -4,11 +4,10 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
 public final class VoiceController implements AutoCloseable {
 
-    private final AtomicReference<String> lastCommand = new AtomicReference<>(null);
+    private final VoiceCommandQueue commands = new VoiceCommandQueue(COMMAND_QUEUE_SIZE);
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicBoolean listening = new AtomicBoolean(false);
     private Thread workerThread;
@@ -16,6 +15,7 @@ public final class VoiceController implements AutoCloseable {
     // Noise filtering parameters
     private static final int REQUIRED_CONSECUTIVE_MATCHES = 1; // reduced for better responsiveness
     private static final long ACCEPT_COOLDOWN_MS = 300; // reduced cooldown for faster response
+    private static final int COMMAND_QUEUE_SIZE = 8;
     private String candidateCommand;
     private int consecutiveMatches;
     private long lastAcceptedAtMillis;
@@ -71,6 +71,7 @@ public final class VoiceController implements AutoCloseable {
             return;
         }
         if (running.compareAndSet(false, true)) {
+            commands.clear();
             workerThread = new Thread(this::runLoop, "VoiceController-Recognizer");
             workerThread.setDaemon(true);
             workerThread.start();
@@ -89,6 +90,7 @@ public final class VoiceController implements AutoCloseable {
             try {
                 while (running.get()) {
                     Object result = getResult.invoke(recognizer);
+                    long resultNanos = System.nanoTime();
                     if (result == null) {
                         continue;
                     }
@@ -98,7 +100,7 @@ public final class VoiceController implements AutoCloseable {
                         String hypothesis = (String) hypothesisObj;
                         String cmd = normalize(hypothesis);
                         System.out.println("VoiceController: Heard: '" + hypothesis + "' -> '" + cmd + "'");
-                        applyNoiseFilteredUpdate(cmd);
+                        applyNoiseFilteredUpdate(cmd, resultNanos);
                     }
                 }
             } finally {
@@ -114,7 +116,8 @@ public final class VoiceController implements AutoCloseable {
         }
     }
 
-    private void applyNoiseFilteredUpdate(String cmd) {
+    // Sphinx does not say when the audio was captured; the result's arrival stands in for it
+    private void applyNoiseFilteredUpdate(String cmd, long resultNanos) {
         if (!isValidCommand(cmd)) {
             candidateCommand = null;
             consecutiveMatches = 0;
@@ -134,11 +137,10 @@ public final class VoiceController implements AutoCloseable {
 
         long now = System.currentTimeMillis();
         if (consecutiveMatches >= REQUIRED_CONSECUTIVE_MATCHES && (now - lastAcceptedAtMillis) >= ACCEPT_COOLDOWN_MS) {
-            String current = lastCommand.get();
-            if (!cmd.equals(current)) {
-                lastCommand.set(cmd);
+            VoiceCommand.Type type = VoiceCommand.Type.fromPhrase(cmd);
+            if (type != null && commands.offer(new VoiceCommand(type, resultNanos, System.nanoTime()))) {
+                lastAcceptedAtMillis = now;
             }
-            lastAcceptedAtMillis = now;
         }
     }
 
@@ -147,11 +149,12 @@ public final class VoiceController implements AutoCloseable {
     }
 
     private static boolean isValidCommand(String cmd) {
-        return "up".equals(cmd) || "down".equals(cmd) || "left".equals(cmd) || "right".equals(cmd) || "restart".equals(cmd);
+        return CommandGrammar.commands().contains(cmd); // the same grammar the recognizer was configured with
     }
 
-    public String getCommand() {
-        return lastCommand.get();
+    // The oldest recognized command not taken yet, or null; commands are buffered in order
+    public VoiceCommand pollCommand() {
+        return commands.poll();
     }
 
     public boolean isEnabled() {
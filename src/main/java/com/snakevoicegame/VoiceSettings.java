@@ -0,0 +1,97 @@
+package com.snakevoicegame;
+
+/**
+ * How {@link VoskVoiceController} listens, shared between the command line, the settings screen and the
+ * running controller. The grammar choice applies when a recognizer is created; everything else is read
+ * while listening, so changes take effect right away.
+ */
+public final class VoiceSettings {
+
+    private volatile boolean grammar = true;
+    private volatile boolean partialResults = true;
+    private volatile boolean vad = true;
+    private volatile int vadEnergyThreshold = 400; // RMS of 16-bit samples
+    private volatile int vadZeroCrossingPercent = 35; // of the samples in a frame
+    private volatile int vadHangoverMillis = 400;
+    private volatile int vadPreRollMillis = 250;
+    private volatile int chunkMillis = 0; // 0 = auto-tune
+    private volatile int lineBufferMillis = 200;
+
+    // Recognize only the commands.gram phrases instead of the full vocabulary
+    public boolean isGrammar() {
+        return grammar;
+    }
+
+    public void setGrammar(boolean grammar) {
+        this.grammar = grammar;
+    }
+
+    // Fire a command from the partial hypothesis as soon as it is stable, instead of after trailing silence
+    public boolean isPartialResults() {
+        return partialResults;
+    }
+
+    public void setPartialResults(boolean partialResults) {
+        this.partialResults = partialResults;
+    }
+
+    // Only decode audio the VoiceActivityDetector considers speech
+    public boolean isVad() {
+        return vad;
+    }
+
+    public void setVad(boolean vad) {
+        this.vad = vad;
+    }
+
+    public int getVadEnergyThreshold() {
+        return vadEnergyThreshold;
+    }
+
+    public void setVadEnergyThreshold(int vadEnergyThreshold) {
+        this.vadEnergyThreshold = Math.max(0, Math.min(32767, vadEnergyThreshold));
+    }
+
+    public int getVadZeroCrossingPercent() {
+        return vadZeroCrossingPercent;
+    }
+
+    public void setVadZeroCrossingPercent(int vadZeroCrossingPercent) {
+        this.vadZeroCrossingPercent = Math.max(0, Math.min(100, vadZeroCrossingPercent));
+    }
+
+    public int getVadHangoverMillis() {
+        return vadHangoverMillis;
+    }
+
+    public void setVadHangoverMillis(int vadHangoverMillis) {
+        this.vadHangoverMillis = Math.max(0, vadHangoverMillis);
+    }
+
+    public int getVadPreRollMillis() {
+        return vadPreRollMillis;
+    }
+
+    public void setVadPreRollMillis(int vadPreRollMillis) {
+        this.vadPreRollMillis = Math.max(0, Math.min(1000, vadPreRollMillis));
+    }
+
+    // Audio read and decoded per call, 10..128 ms; 0 lets AudioChunkTuner pick the smallest that keeps up
+    public int getChunkMillis() {
+        return chunkMillis;
+    }
+
+    public void setChunkMillis(int chunkMillis) {
+        this.chunkMillis = chunkMillis <= 0 ? 0 : Math.max(10, Math.min(128, chunkMillis));
+    }
+
+    // Capacity of the microphone line, 20..2000 ms and at least two chunks; it limits how far capture may
+    // fall behind, not the latency
+    public int getLineBufferMillis() {
+        return lineBufferMillis;
+    }
+
+    public void setLineBufferMillis(int lineBufferMillis) {
+        this.lineBufferMillis = Math.max(20, Math.min(2000, lineBufferMillis));
+    }
+}
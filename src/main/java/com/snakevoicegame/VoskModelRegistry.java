@@ -0,0 +1,128 @@
+package com.snakevoicegame;
+
+import org.vosk.LibVosk;
+import org.vosk.LogLevel;
+import org.vosk.Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The one Vosk {@link Model} of the application, shared by every recognizer. Loading it takes seconds,
+ * so {@link #preload()} starts it on a background thread as early as possible and {@link #acquire()}
+ * only waits for whatever is left. Users hold a reference from acquire until {@link #release()}; the
+ * model is closed when the last one is released.
+ */
+final class VoskModelRegistry {
+
+    enum State { IDLE, LOADING, READY, FAILED }
+
+    private static final String MODEL_DIR = "vosk-model-small-en-us-0.15";
+    private static final String FALLBACK_MODEL_DIR = "D:\\Site\\Voice-Controlled Snake\\SnakeVoiceGame\\" + MODEL_DIR;
+
+    private static final Object LOCK = new Object();
+    private static CompletableFuture<Model> loading; // null until the first preload, or after a release closed it
+    private static int references;
+    private static volatile State state = State.IDLE;
+    private static volatile String failure;
+    private static volatile long loadStartNanos;
+    private static volatile long loadNanos;
+
+    private VoskModelRegistry() {
+    }
+
+    // Starts loading in the background unless it is loading or loaded already; a failed load is retried
+    static CompletableFuture<Model> preload() {
+        synchronized (LOCK) {
+            if (loading == null || state == State.FAILED) {
+                state = State.LOADING;
+                failure = null;
+                loadStartNanos = System.nanoTime();
+                CompletableFuture<Model> future = new CompletableFuture<>();
+                loading = future;
+                Thread loader = new Thread(() -> load(future), "VoskModelLoader");
+                loader.setDaemon(true);
+                loader.start();
+            }
+            return loading;
+        }
+    }
+
+    // Waits for the model (loading it if nobody did yet) and takes a reference to it
+    static Model acquire() throws IOException {
+        CompletableFuture<Model> future;
+        synchronized (LOCK) {
+            future = preload();
+            references++;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release();
+            throw new IOException("Interrupted while loading the voice model", e);
+        } catch (ExecutionException e) {
+            release();
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    static void release() {
+        synchronized (LOCK) {
+            if (references == 0) {
+                return;
+            }
+            references--;
+            if (references > 0 || loading == null || state != State.READY) {
+                return;
+            }
+            loading.join().close();
+            loading = null;
+            state = State.IDLE;
+            System.out.println("VoskModelRegistry: Closed the voice model");
+        }
+    }
+
+    static State getState() {
+        return state;
+    }
+
+    // Why the last load failed, or null
+    static String getFailure() {
+        return failure;
+    }
+
+    // Time spent loading so far, or in total once loaded
+    static long getLoadNanos() {
+        return state == State.LOADING ? System.nanoTime() - loadStartNanos : loadNanos;
+    }
+
+    private static void load(CompletableFuture<Model> future) {
+        try {
+            LibVosk.setLogLevel(LogLevel.WARNINGS);
+            File modelDir = new File(MODEL_DIR);
+            if (!modelDir.exists()) {
+                // Try absolute path
+                modelDir = new File(FALLBACK_MODEL_DIR);
+            }
+            if (!modelDir.exists()) {
+                throw new IOException("Model not found. Please ensure " + MODEL_DIR + " is in the project directory.");
+            }
+            System.out.println("VoskModelRegistry: Loading model from: " + modelDir.getAbsolutePath());
+            Model model = new Model(modelDir.getPath());
+            loadNanos = System.nanoTime() - loadStartNanos;
+            state = State.READY;
+            System.out.printf(Locale.ROOT, "VoskModelRegistry: Model loaded in %.1f s%n", loadNanos / 1e9);
+            future.complete(model);
+        } catch (Throwable e) { // also UnsatisfiedLinkError when the native library is missing
+            failure = e.getMessage();
+            state = State.FAILED;
+            System.err.println("VoskModelRegistry: Failed to load the voice model: " + e.getMessage());
+            future.completeExceptionally(e);
+        }
+    }
+}
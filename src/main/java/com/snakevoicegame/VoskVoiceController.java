@@ -2,81 +2,140 @@ package com.snakevoicegame;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import org.vosk.LibVosk;
-import org.vosk.LogLevel;
 import org.vosk.Model;
 import org.vosk.Recognizer;
 
 import javax.sound.sampled.*;
-import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
 public final class VoskVoiceController implements AutoCloseable {
 
-    private final AtomicReference<String> lastCommand = new AtomicReference<>(null);
+    private final VoiceCommandQueue commands = new VoiceCommandQueue(COMMAND_QUEUE_SIZE);
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicBoolean listening = new AtomicBoolean(false);
     private Thread workerThread;
+    private Thread captureThread; // only touched by the listener thread
     private String statusMessage = "Initializing...";
     
-    private Model model;
-    private Recognizer recognizer;
-    private boolean enabled = false;
+    private Model model; // shared, see VoskModelRegistry
+    private Recognizer recognizer; // only touched by the listener thread until close()
+    private volatile boolean enabled = false;
+    private volatile boolean closed = false;
+    private boolean loadingModel = false; // guarded by this
+    private final Object recognizerLock = new Object();
+    private boolean listenerActive = false; // guarded by recognizerLock; the listener thread owns the recognizer meanwhile
     
-    private long lastCommandTime = 0;
-    private static final long COMMAND_COOLDOWN_MS = 300;
+    private static final int COMMAND_QUEUE_SIZE = 8; // a burst of turns, not a backlog
+    private static final int BYTES_PER_MILLI = 32; // 16 kHz, 16-bit mono
+    private static final long NANOS_PER_BYTE = 1_000_000L / BYTES_PER_MILLI;
+    private static final int MAX_CHUNK_BYTES = 128 * BYTES_PER_MILLI;
+    private static final int RING_CHUNKS = 128; // 1.3 s at the smallest chunk size
+    private static final long POLL_NANOS = 100_000_000L; // how often an idle decoder checks for stop()
+    private volatile int chunkMillis; // currently read per call
+    private volatile long captureLatencyNanos; // smoothed, from the oldest sample of a chunk to its decode
+
+    // The capture thread only reads the microphone into the ring; the listener thread decodes from it
+    private final AudioChunkRing ring = new AudioChunkRing(RING_CHUNKS, MAX_CHUNK_BYTES);
+    private volatile boolean capturing;
+    private volatile long overruns; // chunks lost because the ring or the line was full; written by capture only
+    private volatile long decoderLagNanos; // capture to start of decode, of the last chunk
+    private final VoiceSettings settings;
+    private final CommandGrammar grammar; // null for open-vocabulary recognition
+
+    // Current utterance, only touched by the listener thread
+    private final VoiceActivityDetector vad;
+    private final CommandStabilizer stabilizer = new CommandStabilizer();
 
     public VoskVoiceController() {
         this(true);
     }
 
     public VoskVoiceController(boolean autoStart) {
-        try {
-            statusMessage = "Loading Vosk model...";
-            LibVosk.setLogLevel(LogLevel.WARNINGS);
-            
-            // Try to find the model in the project directory
-            File modelDir = new File("vosk-model-small-en-us-0.15");
-            if (!modelDir.exists()) {
-                // Try absolute path
-                modelDir = new File("D:\\Site\\Voice-Controlled Snake\\SnakeVoiceGame\\vosk-model-small-en-us-0.15");
-            }
-            
-            if (!modelDir.exists()) {
-                throw new Exception("Model not found. Please ensure vosk-model-small-en-us-0.15 is in the project directory.");
-            }
-            
-            System.out.println("VoskVoiceController: Loading model from: " + modelDir.getAbsolutePath());
-            model = new Model(modelDir.getPath());
-            recognizer = new Recognizer(model, 16000);
-            recognizer.setWords(true);
-            
-            enabled = true;
-            statusMessage = "Ready";
-            System.out.println("VoskVoiceController: Successfully initialized! Say UP, DOWN, LEFT, RIGHT, or RESTART.");
-            
-            if (autoStart) {
-                start();
-            }
-        } catch (Exception e) {
-            enabled = false;
-            statusMessage = "Voice unavailable: " + e.getMessage();
-            System.err.println("VoskVoiceController: Failed to initialize: " + e.getMessage());
-            e.printStackTrace();
+        this(autoStart, new VoiceSettings());
+    }
+
+    /**
+     * With {@link VoiceSettings#isGrammar()} the recognizer only knows the phrases of {@link CommandGrammar}
+     * plus {@code [unk]}, which decodes faster and rarely mistakes other speech for a command. Without it
+     * the full vocabulary is decoded and commands are picked out of the text with {@link #extractCommands}.
+     * The model comes from VoskModelRegistry and is loaded by the listener thread, never by the caller.
+     */
+    public VoskVoiceController(boolean autoStart, VoiceSettings settings) {
+        this.settings = settings;
+        this.vad = new VoiceActivityDetector(settings);
+        this.grammar = settings.isGrammar() ? CommandGrammar.commands() : null;
+        VoskModelRegistry.preload();
+        statusMessage = VoskModelRegistry.getState() == VoskModelRegistry.State.READY ? "Ready" : "Loading Vosk model...";
+        if (autoStart) {
+            start();
         }
     }
 
-    public void start() {
-        if (!enabled || !running.compareAndSet(false, true)) {
+    // Starts listening; after a stop() the loaded model is reused and only the microphone is reopened
+    public synchronized void start() {
+        if (closed || running.get()) {
+            return;
+        }
+        if (workerThread != null && workerThread.isAlive() && loadingModel) {
+            running.set(true); // stopped while the model was loading; that thread goes on to listen
             return;
         }
+        if (workerThread != null && workerThread.isAlive()) {
+            // the previous session's thread is still finishing its last read; never run two at once
+            try {
+                workerThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (workerThread.isAlive()) {
+                System.err.println("VoskVoiceController: Previous listener did not stop, not restarting");
+                return;
+            }
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        commands.clear(); // nothing from the last session is meant for this one
+        loadingModel = recognizer == null;
+        synchronized (recognizerLock) {
+            listenerActive = true;
+        }
         workerThread = new Thread(this::runLoop, "VoskVoiceController");
         workerThread.setDaemon(true);
         workerThread.start();
     }
 
     private void runLoop() {
+        try {
+            listen();
+        } finally {
+            synchronized (recognizerLock) {
+                listenerActive = false;
+                if (closed) {
+                    releaseRecognizer(); // close() left that to this thread
+                }
+            }
+        }
+    }
+
+    private void listen() {
+        if (recognizer == null) {
+            boolean created = createRecognizer();
+            synchronized (this) {
+                loadingModel = false;
+                if (!created || !running.get()) {
+                    return; // failed, or stopped while loading
+                }
+            }
+        }
+        recognizer.reset(); // drop audio left over from the previous session
+        stabilizer.reset();
+        vad.reset();
         TargetDataLine microphone = null;
         try {
             // Get microphone
@@ -89,68 +148,238 @@ public final class VoskVoiceController implements AutoCloseable {
                 return;
             }
             
+            byte[] speech = new byte[VoiceActivityDetector.maxOutputBytes(MAX_CHUNK_BYTES)];
+            AudioChunkTuner tuner = new AudioChunkTuner(); // per session, the machine may be busier now
+            int fixedMillis = settings.getChunkMillis();
+            chunkMillis = fixedMillis > 0 ? fixedMillis : tuner.getChunkMillis();
+
             microphone = (TargetDataLine) AudioSystem.getLine(info);
-            microphone.open(format);
+            // At least two chunks, so the line can fill one while the other is read
+            int lineBytes = Math.max(settings.getLineBufferMillis(), 2 * chunkMillis) * BYTES_PER_MILLI;
+            microphone.open(format, lineBytes);
+            System.out.printf(Locale.ROOT, "VoskVoiceController: Line buffer %d ms%n",
+                    microphone.getBufferSize() / BYTES_PER_MILLI);
+            ring.clear();
+            overruns = 0;
+            int maxDepth = 0;
+            long maxLagNanos = 0;
+
             microphone.start();
+            capturing = true;
+            TargetDataLine line = microphone;
+            captureThread = new Thread(() -> captureLoop(line), "VoskAudioCapture");
+            captureThread.setDaemon(true);
+            captureThread.setPriority(Thread.MAX_PRIORITY); // it only copies, but must never miss the line
+            captureThread.start();
             
             listening.set(true);
             statusMessage = "Listening...";
             System.out.println("VoskVoiceController: Now listening for commands...");
             
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            
             while (running.get()) {
-                bytesRead = microphone.read(buffer, 0, buffer.length);
-                
-                if (bytesRead > 0) {
-                    if (recognizer.acceptWaveForm(buffer, bytesRead)) {
-                        String result = recognizer.getResult();
-                        processResult(result);
+                if (!ring.awaitChunk(POLL_NANOS)) {
+                    continue;
+                }
+                maxDepth = Math.max(maxDepth, ring.depth());
+                byte[] chunk = ring.readSlot();
+                int chunkBytes = ring.readLength();
+                long capturedNanos = ring.readCaptureNanos();
+                long startNanos = System.nanoTime();
+                decoderLagNanos = startNanos - capturedNanos;
+                maxLagNanos = Math.max(maxLagNanos, decoderLagNanos);
+
+                byte[] audio = chunk;
+                int audioBytes = chunkBytes;
+                if (settings.isVad()) {
+                    // silence never reaches the decoder
+                    audio = speech;
+                    audioBytes = vad.process(chunk, chunkBytes, speech);
+                    ring.release(); // copied out; the capture thread may reuse the slot
+                }
+                if (audioBytes > 0) {
+                    decode(audio, audioBytes, capturedNanos);
+                    long decodedNanos = System.nanoTime();
+                    long latency = decodedNanos - (capturedNanos - chunkBytes * NANOS_PER_BYTE);
+                    captureLatencyNanos = captureLatencyNanos == 0 ? latency : (captureLatencyNanos * 7 + latency) / 8;
+                    fixedMillis = settings.getChunkMillis();
+                    if (fixedMillis == 0 && tuner.record(audioBytes * NANOS_PER_BYTE, decodedNanos - startNanos)) {
+                        System.out.printf(Locale.ROOT,
+                                "VoskVoiceController: Decoding at %.2fx real time, reading %d ms chunks now%n",
+                                tuner.getRealTimeFactor(), tuner.getChunkMillis());
                     }
+                    chunkMillis = fixedMillis > 0 ? fixedMillis : tuner.getChunkMillis();
+                }
+                if (!settings.isVad()) {
+                    ring.release();
+                } else if (vad.utteranceEnded()) {
+                    // Vosk would wait for trailing silence it is no longer fed; end the utterance here
+                    processResult(recognizer.getFinalResult(), capturedNanos);
                 }
             }
+            System.out.printf(Locale.ROOT,
+                    "VoskVoiceController: Stopped listening; %d chunks lost, queue up to %d of %d, lag up to %.0f ms%n",
+                    overruns, maxDepth, ring.capacity(), maxLagNanos / 1e6);
             
         } catch (Exception e) {
             statusMessage = "Error: " + e.getMessage();
             System.err.println("VoskVoiceController error: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            capturing = false;
             if (microphone != null) {
-                microphone.stop();
+                microphone.stop(); // lets a blocked read() return
+                joinCaptureThread();
                 microphone.close();
             }
             listening.set(false);
         }
     }
 
-    private void processResult(String jsonResult) {
+    // Capture thread: keeps the line drained no matter how far behind decoding is; never blocks on it
+    private void captureLoop(TargetDataLine microphone) {
+        byte[] discard = new byte[MAX_CHUNK_BYTES]; // read into when the ring is full, so the line keeps moving
+        while (capturing) {
+            // a chunk that grew past half the line buffer is read in halves, so the line never overflows
+            int chunkBytes = Math.min(chunkMillis * BYTES_PER_MILLI, (microphone.getBufferSize() / 2) & ~1);
+            byte[] slot = ring.writeSlot();
+            // read() blocks until the whole chunk is there, so the chunk is the floor of the latency
+            int bytesRead = microphone.read(slot != null ? slot : discard, 0, chunkBytes);
+            long readNanos = System.nanoTime();
+            if (bytesRead <= 0) {
+                continue;
+            }
+            int backlogBytes = microphone.available(); // captured after this chunk, still in the line
+            if (slot == null || backlogBytes >= microphone.getBufferSize()) {
+                overruns++; // the chunk is dropped, or the line itself may have dropped audio
+            }
+            if (slot != null) {
+                ring.publish(bytesRead, readNanos - backlogBytes * NANOS_PER_BYTE);
+            }
+        }
+    }
+
+    private void joinCaptureThread() {
+        Thread capture = captureThread;
+        if (capture == null) {
+            return;
+        }
         try {
-            JsonObject obj = JsonParser.parseString(jsonResult).getAsJsonObject();
-            if (obj.has("text")) {
-                String text = obj.get("text").getAsString().toLowerCase().trim();
-                
-                if (!text.isEmpty()) {
-                    System.out.println("VoskVoiceController: Heard: '" + text + "'");
-                    
-                    // Extract command from text
-                    String command = extractCommand(text);
-                    if (command != null) {
-                        long now = System.currentTimeMillis();
-                        if (now - lastCommandTime >= COMMAND_COOLDOWN_MS) {
-                            lastCommand.set(command);
-                            lastCommandTime = now;
-                            System.out.println("VoskVoiceController: Command accepted: " + command);
-                        }
-                    }
-                }
+            capture.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        captureThread = null;
+    }
+
+    // Waits for the shared model, which is usually warm already, and builds this controller's recognizer
+    private boolean createRecognizer() {
+        statusMessage = "Loading Vosk model...";
+        try {
+            model = VoskModelRegistry.acquire();
+            if (closed) {
+                VoskModelRegistry.release();
+                model = null;
+                return false;
+            }
+            recognizer = grammar != null
+                    ? new Recognizer(model, 16000, grammar.toVoskGrammar())
+                    : new Recognizer(model, 16000);
+            recognizer.setWords(true);
+            enabled = true;
+            statusMessage = "Ready";
+            System.out.println("VoskVoiceController: Successfully initialized! Say UP, DOWN, LEFT, RIGHT, or RESTART.");
+            return true;
+        } catch (IOException e) {
+            running.set(false); // the next start() tries again
+            statusMessage = "Voice unavailable: " + e.getMessage();
+            System.err.println("VoskVoiceController: Failed to initialize: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void decode(byte[] audio, int length, long readNanos) {
+        if (recognizer.acceptWaveForm(audio, length)) {
+            processResult(recognizer.getResult(), readNanos);
+        } else if (settings.isPartialResults()) {
+            processPartialResult(recognizer.getPartialResult(), readNanos);
+        }
+    }
+
+    // End of an utterance: the commands in it that the partial hypotheses have not fired yet
+    private void processResult(String jsonResult, long readNanos) {
+        try {
+            String text = parseText(jsonResult);
+            List<String> commands = text == null || text.isEmpty() ? Collections.emptyList() : commandsIn(text);
+            if (text != null && !text.isEmpty()) {
+                System.out.println("VoskVoiceController: Heard: '" + text + "'");
+            }
+            for (String command : stabilizer.result(commands)) {
+                accept(command, readNanos);
             }
         } catch (Exception e) {
+            stabilizer.reset();
             System.err.println("VoskVoiceController: Error parsing result: " + e.getMessage());
         }
     }
 
-    private String extractCommand(String text) {
+    // Mid-utterance: a command fires once it is in the same place in two partial hypotheses in a row
+    private void processPartialResult(String jsonPartial, long readNanos) {
+        try {
+            String text = parseText(jsonPartial, "partial");
+            List<String> commands = text == null || text.isEmpty() ? Collections.emptyList() : commandsIn(text);
+            for (String command : stabilizer.partial(commands)) {
+                accept(command, readNanos);
+            }
+        } catch (Exception e) {
+            System.err.println("VoskVoiceController: Error parsing partial result: " + e.getMessage());
+        }
+    }
+
+    // Every command in the text, in the order spoken, e.g. [left, up] for "left up"
+    private List<String> commandsIn(String text) {
+        return grammar != null ? grammar.matchAll(text) : extractCommands(text);
+    }
+
+    // No cooldown: each command word of an utterance fires exactly once, and an expert tick is under 100 ms
+    private void accept(String command, long captureNanos) {
+        VoiceCommand.Type type = VoiceCommand.Type.fromPhrase(command);
+        if (type == null) {
+            return;
+        }
+        if (!commands.offer(new VoiceCommand(type, captureNanos, System.nanoTime()))) {
+            System.err.println("VoskVoiceController: Command queue full, dropped: " + command);
+            return;
+        }
+        System.out.println("VoskVoiceController: Command accepted: " + command);
+    }
+
+    // Recognized text of a Vosk result JSON, lower-cased; null if there is none
+    static String parseText(String jsonResult) {
+        return parseText(jsonResult, "text");
+    }
+
+    // Same for another field, e.g. "partial" in a partial result
+    static String parseText(String json, String field) {
+        JsonObject obj = JsonParser.parseString(json).getAsJsonObject();
+        if (!obj.has(field)) {
+            return null;
+        }
+        return obj.get(field).getAsString().toLowerCase().trim();
+    }
+
+    // extractCommand applied to each word of the text
+    static List<String> extractCommands(String text) {
+        List<String> commands = new ArrayList<>();
+        for (String word : text.split(" ")) {
+            String command = extractCommand(word);
+            if (command != null) {
+                commands.add(command);
+            }
+        }
+        return commands;
+    }
+
+    static String extractCommand(String text) {
         // Check for direction commands (most specific matches first)
         if (text.contains("up") || text.contains("app")) return "up";
         if (text.contains("down")) return "down";
@@ -160,8 +389,34 @@ public final class VoskVoiceController implements AutoCloseable {
         return null;
     }
 
-    public String getCommand() {
-        return lastCommand.getAndSet(null); // Get and clear
+    // The oldest recognized command not taken yet, or null; commands are buffered in order
+    public VoiceCommand pollCommand() {
+        return commands.poll();
+    }
+
+    // Milliseconds of audio read per call, as set or as picked by AudioChunkTuner
+    public int getChunkMillis() {
+        return chunkMillis;
+    }
+
+    // Smoothed time from capturing the oldest sample of a chunk to having decoded it
+    public long getCaptureLatencyNanos() {
+        return captureLatencyNanos;
+    }
+
+    // Chunks lost since listening started, because decoding fell more than the whole ring behind
+    public long getOverruns() {
+        return overruns;
+    }
+
+    // Chunks captured and waiting for the decoder
+    public int getQueueDepth() {
+        return ring.depth();
+    }
+
+    // How long the last chunk waited between capture and the start of its decode
+    public long getDecoderLagNanos() {
+        return decoderLagNanos;
     }
 
     public boolean isEnabled() {
@@ -178,9 +433,16 @@ public final class VoskVoiceController implements AutoCloseable {
 
     public void stop() {
         if (running.compareAndSet(true, false)) {
+            Thread worker;
+            synchronized (this) {
+                if (loadingModel) {
+                    return; // the thread notices once the model is there; no need to wait for that
+                }
+                worker = workerThread;
+            }
             try {
-                if (workerThread != null) {
-                    workerThread.join(1000);
+                if (worker != null) {
+                    worker.join(1000);
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -190,12 +452,25 @@ public final class VoskVoiceController implements AutoCloseable {
 
     @Override
     public void close() {
+        closed = true;
         stop();
+        synchronized (recognizerLock) {
+            if (!listenerActive) {
+                releaseRecognizer();
+            }
+            // otherwise the listener thread is still loading or reading and releases on its way out
+        }
+    }
+
+    // Guarded by recognizerLock, and only while no listener thread uses the recognizer
+    private void releaseRecognizer() {
         if (recognizer != null) {
             recognizer.close();
+            recognizer = null;
         }
         if (model != null) {
-            model.close();
+            VoskModelRegistry.release();
+            model = null;
         }
     }
 }
@@ -0,0 +1,72 @@
+package com.snakevoicegame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommandStabilizerTest {
+
+    @Test
+    void firesEachStableCommandOnce() {
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        assertEquals(List.of(), stabilizer.partial(List.of("left")));
+        assertEquals(List.of("left"), stabilizer.partial(List.of("left")));
+        assertEquals(List.of(), stabilizer.partial(List.of("left", "up")));
+        assertEquals(List.of("up"), stabilizer.partial(List.of("left", "up")));
+        assertEquals(List.of(), stabilizer.result(List.of("left", "up")));
+    }
+
+    @Test
+    void finalResultFiresWhatThePartialsDidNot() {
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        stabilizer.partial(List.of("left"));
+        assertEquals(List.of("left"), stabilizer.partial(List.of("left", "up")));
+        assertEquals(List.of("up"), stabilizer.result(List.of("left", "up")));
+    }
+
+    @Test
+    void revisedPartialDoesNotFireTwice() {
+        // "left up" fired, then the final drops the "left"
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        stabilizer.partial(List.of("left", "up"));
+        assertEquals(List.of("left", "up"), stabilizer.partial(List.of("left", "up")));
+        assertEquals(List.of(), stabilizer.result(List.of("up")));
+    }
+
+    @Test
+    void revisedPartialFiresTheNewCommand() {
+        // "left" fired, the final says "up" instead
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        stabilizer.partial(List.of("left"));
+        assertEquals(List.of("left"), stabilizer.partial(List.of("left")));
+        assertEquals(List.of("up"), stabilizer.result(List.of("up")));
+    }
+
+    @Test
+    void revisedLaterWordFiresOnlyTheReplacement() {
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        stabilizer.partial(List.of("left", "up"));
+        stabilizer.partial(List.of("left", "up"));
+        assertEquals(List.of(), stabilizer.partial(List.of("left", "right")));
+        assertEquals(List.of("right"), stabilizer.result(List.of("left", "right")));
+    }
+
+    @Test
+    void repeatedCommandFiresAgain() {
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        stabilizer.partial(List.of("up"));
+        assertEquals(List.of("up"), stabilizer.partial(List.of("up")));
+        assertEquals(List.of("up"), stabilizer.result(List.of("up", "up")));
+    }
+
+    @Test
+    void resultStartsANewUtterance() {
+        CommandStabilizer stabilizer = new CommandStabilizer();
+        stabilizer.partial(List.of("left"));
+        stabilizer.partial(List.of("left"));
+        stabilizer.result(List.of("left"));
+        assertEquals(List.of("left"), stabilizer.result(List.of("left")));
+    }
+}